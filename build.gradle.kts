@@ -1,3 +1,5 @@
+import com.github.haseebxd.echoexception.sound.engine.PackVoiceSpritesTask
+import com.github.haseebxd.echoexception.sound.voices.GenerateVoicePacksTask
 import org.jetbrains.changelog.Changelog
 import org.jetbrains.changelog.markdownToHTML
 import org.jetbrains.intellij.platform.gradle.TestFrameworkType
@@ -127,7 +129,35 @@ kover {
     }
 }
 
+// Packs every voice-pack directory into one sprite; see VoiceSprite for the format
+val packVoiceSprites by tasks.registering(PackVoiceSpritesTask::class) {
+    voicePacksDir = layout.projectDirectory.dir("src/main/resources/voice-packs")
+    encoding = providers.gradleProperty("voiceSpriteEncoding").orElse("pcm")
+    outputDir = layout.buildDirectory.dir("generated/voice-sprites")
+}
+
+// Turns each pack's voice-pack.properties into a VoicePack class with perfect-hash tables
+val generateVoicePacks by tasks.registering(GenerateVoicePacksTask::class) {
+    voicePacksDir = layout.projectDirectory.dir("src/main/resources/voice-packs")
+    outputDir = layout.buildDirectory.dir("generated/voice-packs")
+    reportFile = layout.buildDirectory.file("reports/voice-packs.txt")
+}
+
+sourceSets {
+    main {
+        java.srcDir(generateVoicePacks.flatMap { it.outputDir })
+        resources.srcDir(packVoiceSprites)
+    }
+}
+
 tasks {
+    processResources {
+        // The clips ship inside the sprites; the source WAVs would only double the jar size
+        exclude("voice-packs/*/*.wav")
+        // Compiled into the pack classes by generateVoicePacks
+        exclude("voice-packs/*/voice-pack.properties")
+    }
+
     wrapper {
         gradleVersion = providers.gradleProperty("gradleVersion").get()
     }
@@ -135,6 +165,14 @@ tasks {
     publishPlugin {
         dependsOn(patchChangelog)
     }
+
+    // Compares WAV, PCM sprite and ADPCM sprite size and decode cost; see VoiceEncodingBenchmark
+    register<JavaExec>("benchmarkVoiceEncoding") {
+        group = "verification"
+        classpath = sourceSets.test.get().runtimeClasspath
+        mainClass = "com.github.haseebxd.echoexception.sound.engine.VoiceEncodingBenchmarkKt"
+        args(layout.projectDirectory.dir("src/main/resources/voice-packs").asFile.path)
+    }
 }
 
 intellijPlatformTesting {
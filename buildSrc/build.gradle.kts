@@ -0,0 +1,30 @@
+plugins {
+    id("java") // Java support
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(gradleApi())
+    compileOnly(libs.annotations)
+}
+
+// The voice-pack tasks are compiled together with the plugin classes that read what they write,
+// so sprites and pack tables are encoded, measured and hashed by the same code at build time and
+// at runtime
+sourceSets {
+    main {
+        java {
+            srcDir("../src/main/java")
+            include("com/github/haseebxd/echoexception/sound/engine/ImaAdpcm.java")
+            include("com/github/haseebxd/echoexception/sound/engine/Loudness.java")
+            include("com/github/haseebxd/echoexception/sound/engine/Resampler.java")
+            include("com/github/haseebxd/echoexception/sound/engine/SampleStream.java")
+            include("com/github/haseebxd/echoexception/sound/voices/VoicePackHash.java")
+            include("com/github/haseebxd/echoexception/sound/engine/PackVoiceSpritesTask.java")
+            include("com/github/haseebxd/echoexception/sound/voices/GenerateVoicePacksTask.java")
+        }
+    }
+}
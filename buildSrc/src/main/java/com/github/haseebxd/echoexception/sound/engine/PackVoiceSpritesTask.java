@@ -0,0 +1,163 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs the WAV clips of every voice-pack directory into one {@code voice-packs/<pack>.sprite}
+ * resource in the layout {@code VoiceSprite} reads. Clips are converted by the {@link Resampler},
+ * measured by {@link Loudness} and, with the {@code adpcm} encoding, encoded by {@link ImaAdpcm},
+ * the same classes the plugin plays them with.
+ */
+public abstract class PackVoiceSpritesTask extends DefaultTask {
+
+    // Must match VoiceSprite and AudioOutputEngine.FORMAT
+    private static final int MAGIC = 0x45585350;
+    private static final int VERSION = 3;
+    private static final float SAMPLE_RATE = 44_100f;
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getVoicePacksDir();
+
+    /**
+     * {@code pcm} or {@code adpcm}, see {@code ClipEncoding}.
+     */
+    @Input
+    public abstract Property<String> getEncoding();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void pack() throws IOException {
+        boolean adpcm = switch (getEncoding().get()) {
+            case "pcm" -> false;
+            case "adpcm" -> true;
+            default -> throw new GradleException("Unknown voice sprite encoding '" + getEncoding().get()
+                    + "', expected pcm or adpcm");
+        };
+        File target = new File(getOutputDir().get().getAsFile(), "voice-packs");
+        getFileSystemOperations().delete(spec -> spec.delete(target));
+        if (!target.mkdirs()) {
+            throw new GradleException("Cannot create " + target);
+        }
+
+        for (File pack : sorted(getVoicePacksDir().get().getAsFile().listFiles(File::isDirectory))) {
+            List<SpriteClip> clips = new ArrayList<>();
+            for (File wav : sorted(pack.listFiles(file -> file.getName().endsWith(".wav")))) {
+                short[] samples = toEngineFormat(wav);
+                byte[] pcm = toBytes(samples);
+                float gain = Loudness.normalizationGain(SampleStream.pcm(ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN)));
+                clips.add(new SpriteClip(wav.getName(), samples.length, gain, adpcm ? ImaAdpcm.encode(samples) : pcm));
+            }
+            if (clips.isEmpty()) {
+                continue;
+            }
+
+            File sprite = new File(target, pack.getName() + ".sprite");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sprite)))) {
+                writeSprite(out, clips, adpcm);
+            }
+            getLogger().lifecycle("Packed " + clips.size() + " clips of " + pack.getName() + " into "
+                    + sprite.getName() + " (" + sprite.length() / 1024 + " KB)");
+        }
+    }
+
+    private static void writeSprite(@NotNull DataOutputStream out, @NotNull List<SpriteClip> clips, boolean adpcm)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt((int) SAMPLE_RATE);
+        out.writeShort(1);
+        out.writeShort(16);
+        out.writeShort(adpcm ? 1 : 0);
+        out.writeInt(clips.size());
+        int offset = 0;
+        for (SpriteClip clip : clips) {
+            byte[] name = clip.name().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeInt(offset);
+            out.writeInt(clip.data().length);
+            out.writeInt(clip.frames());
+            out.writeFloat(clip.gain());
+            offset += clip.data().length;
+        }
+        for (SpriteClip clip : clips) {
+            out.write(clip.data());
+        }
+    }
+
+    // Decodes to 16-bit little-endian, then down-mixes and resamples as PcmDecoder does
+    @NotNull
+    private static short[] toEngineFormat(@NotNull File wav) throws IOException {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(wav)) {
+            AudioFormat format = source.getFormat();
+            AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                    format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+            byte[] bytes;
+            try (AudioInputStream converted = AudioSystem.getAudioInputStream(pcm16, source)) {
+                bytes = converted.readAllBytes();
+            }
+            ByteBuffer mono = Resampler.toMono(ByteBuffer.wrap(bytes), format.getChannels(),
+                    format.getSampleRate(), SAMPLE_RATE).order(ByteOrder.LITTLE_ENDIAN);
+            short[] samples = new short[mono.remaining() / 2];
+            mono.asShortBuffer().get(samples);
+            return samples;
+        } catch (UnsupportedAudioFileException e) {
+            throw new GradleException(wav + " is not a readable WAV", e);
+        }
+    }
+
+    @NotNull
+    private static byte[] toBytes(@NotNull short[] samples) {
+        ByteBuffer bytes = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asShortBuffer().put(samples);
+        return bytes.array();
+    }
+
+    @NotNull
+    private static List<File> sorted(File[] files) {
+        if (files == null) {
+            return List.of();
+        }
+        File[] copy = files.clone();
+        Arrays.sort(copy, Comparator.comparing(File::getName));
+        return List.of(copy);
+    }
+
+    private record SpriteClip(String name, int frames, float gain, byte[] data) {
+    }
+}
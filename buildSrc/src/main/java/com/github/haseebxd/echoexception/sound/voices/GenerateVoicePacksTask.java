@@ -0,0 +1,227 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.inject.Inject;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Turns each pack's {@code voice-pack.properties} into a {@code VoicePack} class whose
+ * {@code VoicePackTable} is placed by {@link VoicePackHash}, the class the plugin looks names up
+ * with. Every clip a descriptor references has to exist and be a readable WAV.
+ */
+public abstract class GenerateVoicePacksTask extends DefaultTask {
+
+    static final String DESCRIPTOR = "voice-pack.properties";
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getVoicePacksDir();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    /**
+     * Duration and size of every clip the descriptors reference.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void generate() throws IOException {
+        File root = getOutputDir().get().getAsFile();
+        getFileSystemOperations().delete(spec -> spec.delete(root));
+        File packageDir = new File(root, VoicePackHash.class.getPackageName().replace('.', '/'));
+        if (!packageDir.mkdirs()) {
+            throw new GradleException("Cannot create " + packageDir);
+        }
+
+        List<String> problems = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+        File[] packs = getVoicePacksDir().get().getAsFile().listFiles(file -> new File(file, DESCRIPTOR).isFile());
+        packs = packs == null ? new File[0] : packs;
+        Arrays.sort(packs, Comparator.comparing(File::getName));
+        for (File pack : packs) {
+            File descriptor = new File(pack, DESCRIPTOR);
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(descriptor.toPath(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            String className = required(properties, pack, "class");
+            String defaultSound = required(properties, pack, "default.sound");
+            String defaultNotification = required(properties, pack, "default.notification");
+            Map<String, String> sounds = new TreeMap<>();
+            Map<String, String> notifications = new TreeMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith("sound.")) {
+                    sounds.put(key.substring("sound.".length()), properties.getProperty(key));
+                } else if (key.startsWith("notification.")) {
+                    notifications.put(key.substring("notification.".length()), properties.getProperty(key));
+                }
+            }
+
+            Set<String> clips = new LinkedHashSet<>();
+            clips.add(defaultSound);
+            clips.addAll(sounds.values());
+            long totalMillis = 0;
+            long totalBytes = 0;
+            for (String clip : clips) {
+                File wav = new File(pack, clip);
+                AudioFileFormat format;
+                try {
+                    format = AudioSystem.getAudioFileFormat(wav);
+                } catch (Exception e) {
+                    problems.add(pack.getName() + "/" + clip + ": "
+                            + (wav.isFile() ? "not a readable WAV (" + e.getMessage() + ")" : "missing"));
+                    continue;
+                }
+                long millis = format.getFrameLength() < 0 ? 0
+                        : (long) (format.getFrameLength() * 1000L / format.getFormat().getFrameRate());
+                totalMillis += millis;
+                totalBytes += wav.length();
+                report.append(String.format("%-72s %7d ms %9d bytes%n", pack.getName() + "/" + clip, millis, wav.length()));
+            }
+            File[] unreferenced = pack.listFiles(file -> file.getName().endsWith(".wav") && !clips.contains(file.getName()));
+            for (File wav : unreferenced == null ? new File[0] : unreferenced) {
+                getLogger().warn(pack.getName() + "/" + wav.getName() + " is not referenced by " + DESCRIPTOR);
+            }
+
+            Set<String> names = new LinkedHashSet<>(sounds.keySet());
+            names.addAll(notifications.keySet());
+            VoicePackHash table;
+            try {
+                table = VoicePackHash.place(new ArrayList<>(names));
+            } catch (IllegalStateException e) {
+                throw new GradleException(pack.getName() + "/" + DESCRIPTOR + ": " + e.getMessage(), e);
+            }
+            String[] slotSounds = new String[table.names().length];
+            String[] slotNotifications = new String[table.names().length];
+            for (int slot = 0; slot < table.names().length; slot++) {
+                String sound = sounds.get(table.names()[slot]);
+                slotSounds[slot] = sound == null ? null : "voice-packs/" + pack.getName() + "/" + sound;
+                slotNotifications[slot] = notifications.get(table.names()[slot]);
+            }
+            String source = javaSource(className, pack.getName() + "/" + DESCRIPTOR, table, slotSounds,
+                    slotNotifications, "voice-packs/" + pack.getName() + "/" + defaultSound, defaultNotification);
+            Files.writeString(new File(packageDir, className + ".java").toPath(), source, StandardCharsets.UTF_8);
+            getLogger().lifecycle(String.format("Generated %s from %s: %d exceptions, %d clips, %.1f s, %d KB",
+                    className, pack.getName(), table.names().length, clips.size(), totalMillis / 1000.0, totalBytes / 1024));
+        }
+        if (!problems.isEmpty()) {
+            throw new GradleException("Voice-pack descriptors reference broken clips:\n" + String.join("\n", problems));
+        }
+        File reportFile = getReportFile().get().getAsFile();
+        Files.createDirectories(reportFile.getParentFile().toPath());
+        Files.writeString(reportFile.toPath(), report, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    private static String required(@NotNull Properties properties, @NotNull File pack, @NotNull String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new GradleException(pack.getName() + "/" + DESCRIPTOR + " has no " + key);
+        }
+        return value;
+    }
+
+    @NotNull
+    private static String javaSource(@NotNull String className, @NotNull String descriptor, @NotNull VoicePackHash table,
+                                     @NotNull String[] sounds, @NotNull String[] notifications,
+                                     @NotNull String defaultSound, @NotNull String defaultNotification) {
+        String[] displacements = Arrays.stream(table.displacements()).mapToObj(String::valueOf).toArray(String[]::new);
+        return """
+                // Generated by the generateVoicePacks task from %s; do not edit.
+                package %s;
+
+                import com.github.haseebxd.echoexception.services.core.ExceptionType;
+
+                import java.util.Collection;
+
+                public final class %s implements VoicePack {
+
+                    private static final VoicePackTable TABLE = new VoicePackTable(
+                            %s,
+                            %s,
+                            %s,
+                            new int[] {%s},
+                            %s,
+                            %s);
+
+                    @Override
+                    public String getSoundForException(ExceptionType exceptionType) {
+                        return TABLE.sound(exceptionType);
+                    }
+
+                    @Override
+                    public String getNotificationForException(ExceptionType exceptionType) {
+                        return TABLE.notification(exceptionType);
+                    }
+
+                    @Override
+                    public Collection<String> getSoundResources() {
+                        return TABLE.soundResources();
+                    }
+                }
+                """.formatted(descriptor, VoicePackHash.class.getPackageName(), className,
+                array(table.names()), array(sounds), array(notifications), String.join(", ", displacements),
+                literal(defaultSound), literal(defaultNotification));
+    }
+
+    @NotNull
+    private static String array(@NotNull String[] values) {
+        StringBuilder array = new StringBuilder("new String[] {\n");
+        for (int i = 0; i < values.length; i++) {
+            array.append("                    ").append(literal(values[i])).append(i + 1 < values.length ? ",\n" : "\n");
+        }
+        return array.append("            }").toString();
+    }
+
+    // Non-ASCII characters are escaped, so the source compiles whatever the encoding
+    @NotNull
+    private static String literal(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
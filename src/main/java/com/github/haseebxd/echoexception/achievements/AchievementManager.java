@@ -1,5 +1,6 @@
 package com.github.haseebxd.echoexception.achievements;
 
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.Service;
@@ -77,9 +78,16 @@ public final class AchievementManager implements PersistentStateComponent<Achiev
     /**
      * Record an exception occurrence and check for new achievements
      */
-    public void recordException(Class<? extends Throwable> exceptionClass) {
-        String exceptionName = exceptionClass.getSimpleName();
-        int newCount = exceptionCounts.merge(exceptionName, 1, Integer::sum);
+    public void recordException(ExceptionType exceptionType) {
+        recordException(exceptionType, 1);
+    }
+
+    /**
+     * Record several occurrences of the same exception at once, e.g. the summary of an exception storm
+     */
+    public void recordException(ExceptionType exceptionType, int occurrences) {
+        String exceptionName = exceptionType.simpleName();
+        int newCount = exceptionCounts.merge(exceptionName, occurrences, Integer::sum);
         
         // Calculate total count from all individual exceptions
         int totalCount = exceptionCounts.entrySet().stream()
@@ -0,0 +1,76 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Inline recognition of ANSI escape sequences, as emitted by colored loggers.
+ * <p>
+ * Scanners call {@link #skip} when they meet an escape character and continue after the returned
+ * offset, so colored output is treated exactly like plain output without building a stripped
+ * copy of it. Recognised forms are CSI ({@code ESC [ params final}, or the single C1 character
+ * {@code 0x9B}), OSC ({@code ESC ] ... BEL} or {@code ... ESC \}) and two-character escapes.
+ */
+final class AnsiEscapes {
+
+    static final char ESC = '\u001B';
+    private static final char C1_CSI = '\u009B';
+    private static final char BEL = '\u0007';
+
+    private AnsiEscapes() {
+    }
+
+    static boolean isEscapeStart(char c) {
+        return c == ESC || c == C1_CSI;
+    }
+
+    /**
+     * Returns the offset just past the escape sequence starting at {@code start}, which must hold
+     * a character accepted by {@link #isEscapeStart}. An unterminated sequence extends to {@code end}.
+     */
+    static int skip(@NotNull CharSequence text, int start, int end) {
+        if (text.charAt(start) == C1_CSI) {
+            return skipCsiBody(text, start + 1, end);
+        }
+        int i = start + 1;
+        if (i >= end) {
+            return end;
+        }
+        char kind = text.charAt(i);
+        if (kind == '[') {
+            return skipCsiBody(text, i + 1, end);
+        }
+        if (kind == ']') {
+            return skipOscBody(text, i + 1, end);
+        }
+        // two-character escape such as ESC 7 or ESC M
+        return i + 1;
+    }
+
+    // Parameter and intermediate bytes are 0x20-0x3F, the final byte is 0x40-0x7E
+    private static int skipCsiBody(@NotNull CharSequence text, int i, int end) {
+        while (i < end) {
+            char c = text.charAt(i++);
+            if (c >= 0x40 && c <= 0x7E) {
+                return i;
+            }
+            if (c < 0x20 || c > 0x3F) {
+                // malformed sequence: stop before the offending character
+                return i - 1;
+            }
+        }
+        return end;
+    }
+
+    private static int skipOscBody(@NotNull CharSequence text, int i, int end) {
+        while (i < end) {
+            char c = text.charAt(i++);
+            if (c == BEL) {
+                return i;
+            }
+            if (c == ESC && i < end && text.charAt(i) == '\\') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * How much work {@link ExceptionConsoleListener} spends on one console output stream.
+ */
+public enum ConsoleScanPolicy {
+
+    /**
+     * Every line goes through the stack-trace parser.
+     */
+    FULL("Full stack-trace parsing"),
+
+    /**
+     * Chunks are only parsed if they could contain an exception header, checked with a cheap
+     * substring search; anything else (access logs, progress output) is skipped wholesale.
+     */
+    PREFILTER("Quick prefilter"),
+
+    /**
+     * The stream is ignored entirely.
+     */
+    SKIP("Ignore");
+
+    // Any exception header contains one of these, so a chunk without them cannot start a trace
+    private static final String[] HEADER_MARKERS = {"Exception", "Error"};
+
+    private final String displayName;
+
+    ConsoleScanPolicy(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Prefilter used by {@link #PREFILTER}. {@link String#indexOf(String)} is a JVM intrinsic,
+     * so this is considerably cheaper than running the parser over the chunk.
+     */
+    static boolean mayStartTrace(@NotNull String text) {
+        for (String marker : HEADER_MARKERS) {
+            if (text.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Suppresses repeats of the same stack trace printed by one process within a short window.
+ * <p>
+ * Traces are identified by {@link StackTraceBlock#fingerprint}, so a second
+ * {@code NullPointerException} from a different call site is still reported. The recently seen
+ * fingerprints live in a small access-ordered map; the eldest entry is evicted once it is full,
+ * keeping every check O(1) and the memory per process constant.
+ */
+final class DuplicateTraceFilter {
+
+    static final int DEFAULT_CAPACITY = 64;
+    static final long DEFAULT_WINDOW_MS = 3_000;
+
+    // Frames below the header that take part in the fingerprint
+    static final int FINGERPRINT_FRAMES = 3;
+
+    private final long windowMillis;
+    private final Map<Long, Long> lastSeen;
+
+    DuplicateTraceFilter() {
+        this(DEFAULT_CAPACITY, DEFAULT_WINDOW_MS);
+    }
+
+    DuplicateTraceFilter(int capacity, long windowMillis) {
+        this.windowMillis = windowMillis;
+        this.lastSeen = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Records the trace unless an identical one was recorded less than the window ago.
+     *
+     * @return {@code true} if the trace is a duplicate and should be skipped
+     */
+    synchronized boolean isDuplicate(long fingerprint, long nowMillis) {
+        Long seenAt = lastSeen.get(fingerprint);
+        if (seenAt != null && nowMillis - seenAt < windowMillis) {
+            return true;
+        }
+        lastSeen.put(fingerprint, nowMillis);
+        return false;
+    }
+}
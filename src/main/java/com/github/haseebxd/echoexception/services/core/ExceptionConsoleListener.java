@@ -1,56 +1,70 @@
 package com.github.haseebxd.echoexception.services.core;
 
-import com.github.haseebxd.echoexception.achievements.AchievementManager;
-import com.github.haseebxd.echoexception.services.notification.NotificationService;
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
 import com.intellij.execution.process.ProcessAdapter;
 import com.intellij.execution.process.ProcessEvent;
 import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessOutputType;
+import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Listens to console output and detects Java exceptions.
- * When an exception is found, triggers sound and notification.
+ * Each output stream is fed through its own {@link StackTraceParser}, so a whole stack trace
+ * (including its {@code Caused by:} chain) triggers sound and notification once. How much of a
+ * stream is parsed is decided by its {@link ConsoleScanPolicy}.
  */
 public final class ExceptionConsoleListener extends ProcessAdapter {
     private static final Logger LOG = Logger.getInstance(ExceptionConsoleListener.class);
-    
-    // track last processed exception to prevent duplicate lines
-    private static volatile String lastProcessedException = null;
-    private static volatile long lastProcessedTime = 0;
-
-    // Regex pattern to match exception names
-    private static final Pattern EXCEPTION_PATTERN = Pattern.compile("\\b(\\w+Exception|\\w+Error)\\b");
-
-    // Common Java exception packages to search
-    private static final List<String> COMMON_EXCEPTION_PACKAGES = Arrays.asList(
-            "java.lang.",
-            "java.io.",
-            "java.net.",
-            "java.sql.",
-            "java.util.",
-            "java.util.concurrent.",
-            "java.security.",
-            "javax.xml.parsers.",
-            "java.text."
-    );
+
+    // How long a stream must stay quiet before an unterminated trace is considered complete
+    private static final long TRACE_QUIET_PERIOD_MS = 250;
+
+    // How often a process in storm mode checks whether the storm has subsided
+    private static final long STORM_CHECK_INTERVAL_MS = 1_000;
 
     @Nullable
     private final Project project;
 
+    // One parser per output type: stdout and stderr are pumped by different threads
+    private final Map<Key<?>, StreamState> streams = new ConcurrentHashMap<>();
+
+    // Per-process, so concurrently running services cannot suppress each other's traces
+    private final DuplicateTraceFilter duplicateFilter = new DuplicateTraceFilter();
+
+    private final ExceptionStormDetector stormDetector;
+    private final AtomicBoolean stormCheckScheduled = new AtomicBoolean();
+
+    private final ScanBudget scanBudget;
+    private final ExceptionRouting routing;
+
+    private final ConsoleScanPolicy stdoutPolicy;
+    private final ConsoleScanPolicy stderrPolicy;
+    private final ConsoleScanPolicy systemPolicy;
+
     private ExceptionConsoleListener(@Nullable Project project) {
         this.project = project;
+
+        SoundSettings settings = SoundSettings.getInstance();
+        this.stormDetector = new ExceptionStormDetector(settings.getStormThresholdPerProcess(),
+                GlobalStormBucket.getInstance().bucket(), System.nanoTime());
+        this.scanBudget = new ScanBudget(settings.getScanBudgetCharsPerSecond());
+        this.routing = settings.getExceptionRouting();
+        this.stdoutPolicy = settings.getStdoutScanPolicy();
+        this.stderrPolicy = settings.getStderrScanPolicy();
+        this.systemPolicy = settings.getSystemScanPolicy();
     }
 
     /**
@@ -69,7 +83,7 @@ public final class ExceptionConsoleListener extends ProcessAdapter {
     }
 
     @Override
-    public void onTextAvailable(@NotNull ProcessEvent event, @NotNull com.intellij.openapi.util.Key outputType) {
+    public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
         String text = event.getText();
 
         if (isTextEmpty(text)) {
@@ -80,7 +94,58 @@ public final class ExceptionConsoleListener extends ProcessAdapter {
             LOG.trace("Processing console output: " + text.trim());
         }
 
-        findAndHandleException(text);
+        StreamState stream = streams.computeIfAbsent(outputType, key -> new StreamState(policyFor(key)));
+        if (stream.policy == ConsoleScanPolicy.SKIP) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        StackTraceParser parser = stream.parser;
+        if (parser.hasPendingTrace()) {
+            // an open trace is always completed, whatever the budget
+            parser.feed(text);
+            scanBudget.recordParsed(text.length(), now);
+        } else if (scanBudget.isExhausted(now)) {
+            scanSampled(parser, text, now);
+        } else if (stream.policy == ConsoleScanPolicy.PREFILTER && !ConsoleScanPolicy.mayStartTrace(text)) {
+            parser.skip(text);
+            scanBudget.recordPrefiltered(text.length());
+        } else {
+            parser.feed(text);
+            scanBudget.recordParsed(text.length(), now);
+        }
+        scheduleIdleFlush(stream);
+    }
+
+    /**
+     * Over-budget scanning: trace starts are still found by the prefilter, but only a sample of
+     * the chunks containing one is parsed.
+     */
+    private void scanSampled(@NotNull StackTraceParser parser, @NotNull String text, long now) {
+        if (!ConsoleScanPolicy.mayStartTrace(text)) {
+            parser.skip(text);
+            scanBudget.recordPrefiltered(text.length());
+        } else if (scanBudget.sampleNext()) {
+            parser.feed(text);
+            scanBudget.recordParsed(text.length(), now);
+        } else {
+            parser.skip(text);
+            scanBudget.recordSampledOut(text.length());
+        }
+    }
+
+    @NotNull
+    private ConsoleScanPolicy policyFor(@NotNull Key<?> outputType) {
+        if (ProcessOutputType.isStderr(outputType)) {
+            return stderrPolicy;
+        }
+        if (ProcessOutputType.isStdout(outputType)) {
+            return stdoutPolicy;
+        }
+        if (ProcessOutputTypes.SYSTEM.equals(outputType)) {
+            return systemPolicy;
+        }
+        return ConsoleScanPolicy.FULL;
     }
 
     @Override
@@ -88,104 +153,163 @@ public final class ExceptionConsoleListener extends ProcessAdapter {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Process terminated with exit code: " + event.getExitCode());
         }
+
+        for (StreamState stream : streams.values()) {
+            stream.parser.flush();
+        }
+        publishStormSummaries(stormDetector.endNow(System.nanoTime()));
+
+        if (scanBudget.hasSampled()) {
+            LOG.info("EchoException: Console output exceeded the scan budget, " + scanBudget.describe());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("Console scan statistics: " + scanBudget.describe());
+        }
     }
 
     private boolean isTextEmpty(@Nullable String text) {
-        return text == null || text.trim().isEmpty();
+        return text == null || text.isEmpty();
+    }
+
+    /**
+     * A trace printed as the last output of a burst has no following line to terminate it,
+     * so it is completed once the stream has been quiet for {@link #TRACE_QUIET_PERIOD_MS}.
+     */
+    private void scheduleIdleFlush(@NotNull StreamState stream) {
+        if (stream.parser.hasPendingTrace() && stream.flushScheduled.compareAndSet(false, true)) {
+            AppExecutorUtil.getAppScheduledExecutorService()
+                    .schedule(() -> flushIdleTrace(stream), TRACE_QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushIdleTrace(@NotNull StreamState stream) {
+        stream.flushScheduled.set(false);
+        boolean flushed = stream.parser.flushIfIdle(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(TRACE_QUIET_PERIOD_MS));
+        if (!flushed) {
+            scheduleIdleFlush(stream);
+        }
     }
 
-    private void findAndHandleException(@NotNull String text) {
-        Matcher matcher = EXCEPTION_PATTERN.matcher(text);
+    private void handleStackTrace(@NotNull StackTraceBlock block) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Parsed stack trace: " + block);
+        }
 
-        if (matcher.find()) {
-            String exceptionName = matcher.group(1);
+        String exceptionName = routedSegment(block).qualifiedName();
 
-            // skip if we just processed this same exception within 3 seconds (for duplicate lines)
-            long currentTime = System.currentTimeMillis();
-            if (exceptionName.equals(lastProcessedException) && 
-                (currentTime - lastProcessedTime) < 3000) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Skipping duplicate exception line: " + exceptionName);
-                }
-                return;
-            }
+        // during an exception storm traces are only counted, and summarised once it is over
+        if (!stormDetector.admit(exceptionName, System.nanoTime())) {
+            scheduleStormCheck();
+            return;
+        }
 
+        // skip if this process printed the same trace within the last few seconds (for duplicate lines)
+        long fingerprint = block.fingerprint(DuplicateTraceFilter.FINGERPRINT_FRAMES);
+        if (duplicateFilter.isDuplicate(fingerprint, System.currentTimeMillis())) {
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Found exception pattern: " + exceptionName);
+                LOG.debug("Skipping duplicate exception trace: " + exceptionName);
             }
+            return;
+        }
 
-            // Update last processed exception and time
-            lastProcessedException = exceptionName;
-            lastProcessedTime = currentTime;
-            
-            resolveAndTriggerException(exceptionName);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found exception pattern: " + exceptionName);
         }
+
+        resolve(block, routing).ifPresent(this::triggerExceptionHandlers);
     }
 
-    private void resolveAndTriggerException(@NotNull String exceptionName) {
-        findExceptionClass(exceptionName)
-                .ifPresent(this::triggerExceptionHandlers);
+    @NotNull
+    private StackTraceBlock.Segment routedSegment(@NotNull StackTraceBlock block) {
+        return routedSegment(block, routing);
+    }
+
+    @NotNull
+    private static StackTraceBlock.Segment routedSegment(@NotNull StackTraceBlock block, @NotNull ExceptionRouting routing) {
+        return routing == ExceptionRouting.ROOT_CAUSE ? block.rootCause() : block.header();
     }
 
     /**
-     * Attempts to find the exception class by searching common packages.
-     *
-     * @param exceptionName the simple name of the exception
-     * @return Optional containing the exception class if found
+     * Resolves the routed exception. A root cause that is neither a known JDK exception nor printed
+     * with its package falls back to the nearest enclosing exception of the cause chain that is.
      */
-    private Optional<Class<? extends Throwable>> findExceptionClass(@NotNull String exceptionName) {
-        for (String pkg : COMMON_EXCEPTION_PACKAGES) {
-            Optional<Class<? extends Throwable>> result = tryLoadClass(pkg + exceptionName);
-            if (result.isPresent()) {
-                return result;
+    @NotNull
+    static Optional<ExceptionType> resolve(@NotNull StackTraceBlock block, @NotNull ExceptionRouting routing) {
+        Optional<ExceptionType> exceptionType = resolve(routedSegment(block, routing));
+
+        if (exceptionType.isEmpty() && routing == ExceptionRouting.ROOT_CAUSE) {
+            List<StackTraceBlock.Segment> chain = block.causeChain();
+            for (int i = chain.size() - 2; i >= 0 && exceptionType.isEmpty(); i--) {
+                exceptionType = resolve(chain.get(i));
             }
         }
-        return Optional.empty();
+        return exceptionType;
     }
 
-    /**
-     * Attempts to load a class by its fully qualified name.
-     *
-     * @param fullyQualifiedName the full class name
-     * @return Optional containing the exception class if it's a Throwable, empty otherwise
-     */
-    private Optional<Class<? extends Throwable>> tryLoadClass(@NotNull String fullyQualifiedName) {
-        try {
-            Class<?> clazz = Class.forName(fullyQualifiedName);
-
-            if (Throwable.class.isAssignableFrom(clazz)) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Successfully loaded exception class: " + fullyQualifiedName);
-                }
-                return Optional.of(clazz.asSubclass(Throwable.class));
+    // Text only: a project's own exception is taken by name, without loading its class
+    @NotNull
+    private static Optional<ExceptionType> resolve(@NotNull StackTraceBlock.Segment segment) {
+        return resolve(segment.qualifiedName());
+    }
+
+    @NotNull
+    static Optional<ExceptionType> resolve(@NotNull String printedName) {
+        ExceptionType type = ExceptionType.named(printedName);
+        return type.isKnown() || type.isQualified() ? Optional.of(type) : Optional.empty();
+    }
+
+    private void scheduleStormCheck() {
+        if (stormCheckScheduled.compareAndSet(false, true)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Exception storm in progress, counting traces without dispatching");
             }
-        } catch (ClassNotFoundException e) {
-            // Expected for non-existent classes
-        } catch (ClassCastException e) {
-            LOG.warn("Class found but not a Throwable: " + fullyQualifiedName, e);
+            AppExecutorUtil.getAppScheduledExecutorService()
+                    .schedule(this::checkStorm, STORM_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
         }
+    }
 
-        return Optional.empty();
+    private void checkStorm() {
+        stormCheckScheduled.set(false);
+        publishStormSummaries(stormDetector.endIfSubsided(System.nanoTime()));
+        if (stormDetector.isInStorm()) {
+            scheduleStormCheck();
+        }
+    }
+
+    private void publishStormSummaries(@NotNull List<ExceptionStormDetector.StormSummary> summaries) {
+        for (ExceptionStormDetector.StormSummary summary : summaries) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Exception storm over: " + summary.occurrences() + " x "
+                        + (summary.isOther() ? "other exceptions" : summary.exceptionName())
+                        + " in " + summary.durationMillis() + "ms");
+            }
+            // traces past the storm's name limit have no single type to announce
+            if (summary.isOther()) {
+                continue;
+            }
+            resolve(summary.exceptionName())
+                    .ifPresent(exceptionType -> ExceptionEventDispatcher.getInstance().publish(new ExceptionEvent(
+                            exceptionType, project, System.nanoTime(), summary.occurrences(), summary.durationMillis(), true)));
+        }
     }
 
     /**
-     * Triggers sound and notification for the detected exception.
+     * Hands the detected exception to the sound, notification and achievement sinks. The sinks run
+     * on the dispatcher thread, so the thread delivering process output is never held up by them.
      *
-     * @param exceptionClass the exception class to handle
+     * @param exceptionType the exception type to handle
      */
-    private void triggerExceptionHandlers(@NotNull Class<? extends Throwable> exceptionClass) {
-        try {
-            SoundTriggerService.getInstance().playSound(exceptionClass);
-            NotificationService.showExceptionNotification(project, exceptionClass);
-            
-            // Record achievement
-            AchievementManager.getInstance().recordException(exceptionClass);
+    private void triggerExceptionHandlers(@NotNull ExceptionType exceptionType) {
+        ExceptionEventDispatcher.getInstance()
+                .publish(new ExceptionEvent(exceptionType, project, System.nanoTime()));
+    }
 
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Triggered handlers for: " + exceptionClass.getSimpleName());
-            }
-        } catch (Exception e) {
-            LOG.error("Error triggering exception handlers for: " + exceptionClass.getSimpleName(), e);
+    private final class StreamState {
+        final ConsoleScanPolicy policy;
+        final StackTraceParser parser = new StackTraceParser(ExceptionConsoleListener.this::handleStackTrace);
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+        StreamState(@NotNull ConsoleScanPolicy policy) {
+            this.policy = policy;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A detected exception on its way from the console listener to the sound, notification and
+ * achievement sinks.
+ *
+ * @param exceptionType  the detected exception type
+ * @param project        the project whose run produced the output, if known
+ * @param detectedNanos  {@link System#nanoTime()} at which the trace was recognised
+ * @param occurrences    how many traces the event stands for
+ * @param durationMillis time span covered by those traces, {@code 0} for a single trace
+ * @param stormSummary   whether the event sums up the traces of this type absorbed by a storm,
+ *                       which may have been a single one
+ */
+public record ExceptionEvent(@NotNull ExceptionType exceptionType,
+                             @Nullable Project project,
+                             long detectedNanos,
+                             int occurrences,
+                             long durationMillis,
+                             boolean stormSummary) {
+
+    public ExceptionEvent(@NotNull ExceptionType exceptionType, @Nullable Project project, long detectedNanos) {
+        this(exceptionType, project, detectedNanos, 1, 0, false);
+    }
+
+    @NotNull
+    public String exceptionName() {
+        return exceptionType.simpleName();
+    }
+}
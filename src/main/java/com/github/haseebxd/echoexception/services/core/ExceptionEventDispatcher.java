@@ -0,0 +1,146 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import com.github.haseebxd.echoexception.achievements.AchievementManager;
+import com.github.haseebxd.echoexception.services.notification.NotificationService;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands detected exceptions from process output threads to the sinks that react to them.
+ * <p>
+ * {@link #publish} only enqueues: it never blocks and never takes a lock, so the thread pumping
+ * console output is back to reading the process within microseconds. The queue is drained on a
+ * pooled executor bounded to one task, which fans every event out to the sound, notification and
+ * achievement sinks in that order, and which holds no thread while the queue is empty. The queue
+ * is bounded; when it is full the newest event is dropped, since a backlog of exception sounds is
+ * worse than a missed one. Once the application (or the plugin) is disposed, events are refused.
+ */
+@Service(Service.Level.APP)
+public final class ExceptionEventDispatcher implements Disposable {
+    private static final Logger LOG = Logger.getInstance(ExceptionEventDispatcher.class);
+
+    static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * Receives every dispatched event on the dispatcher's executor.
+     */
+    public interface Sink {
+        void onException(@NotNull ExceptionEvent event);
+    }
+
+    private final Queue<ExceptionEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final List<Sink> sinks;
+    private final Executor executor;
+    private volatile boolean disposed;
+
+    public ExceptionEventDispatcher() {
+        this(List.of(
+                event -> SoundTriggerService.getInstance().playSound(event.exceptionType(), event.detectedNanos()),
+                ExceptionEventDispatcher::notifyUser,
+                event -> AchievementManager.getInstance().recordException(event.exceptionType(), event.occurrences())
+        ), AppExecutorUtil.createBoundedApplicationPoolExecutor("EchoException Event Dispatcher", 1));
+    }
+
+    ExceptionEventDispatcher(@NotNull List<Sink> sinks, @NotNull Executor executor) {
+        this.sinks = sinks;
+        this.executor = executor;
+    }
+
+    public static ExceptionEventDispatcher getInstance() {
+        return ApplicationManager.getApplication().getService(ExceptionEventDispatcher.class);
+    }
+
+    /**
+     * Queues an event for the sinks.
+     *
+     * @return {@code false} if the queue was full and the event was dropped, or the dispatcher
+     * has been disposed
+     */
+    public boolean publish(@NotNull ExceptionEvent event) {
+        if (disposed) {
+            return false;
+        }
+        if (size.incrementAndGet() > QUEUE_CAPACITY) {
+            size.decrementAndGet();
+            long total = dropped.incrementAndGet();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("EchoException: Event queue full, dropped " + event.exceptionName() + " (" + total + " dropped so far)");
+            }
+            return false;
+        }
+
+        queue.offer(event);
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Number of events dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        queue.clear();
+        size.set(0);
+    }
+
+    private void drain() {
+        while (true) {
+            ExceptionEvent event;
+            while (!disposed && (event = queue.poll()) != null) {
+                size.decrementAndGet();
+                dispatch(event);
+            }
+            draining.set(false);
+            // an event offered after the last poll but before the reset found the drain still running
+            if (disposed || queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+    private static void notifyUser(@NotNull ExceptionEvent event) {
+        if (event.stormSummary()) {
+            NotificationService.showStormNotification(event.project(), event.exceptionType(),
+                    event.occurrences(), event.durationMillis());
+        } else {
+            NotificationService.showExceptionNotification(event.project(), event.exceptionType());
+        }
+    }
+
+    private void dispatch(@NotNull ExceptionEvent event) {
+        for (Sink sink : sinks) {
+            try {
+                sink.onException(event);
+            } catch (Exception e) {
+                LOG.error("Error triggering exception handlers for: " + event.exceptionName(), e);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - event.detectedNanos());
+            LOG.debug("Triggered handlers for: " + event.exceptionName() + " (" + latencyMicros + "µs after detection)");
+        }
+    }
+}
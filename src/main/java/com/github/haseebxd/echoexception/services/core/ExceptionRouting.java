@@ -0,0 +1,27 @@
+package com.github.haseebxd.echoexception.services.core;
+
+/**
+ * Which exception of a {@code Caused by:} chain decides the sound, notification and achievement.
+ */
+public enum ExceptionRouting {
+
+    /**
+     * The innermost cause, e.g. the {@code SQLException} beneath a wrapping {@code RuntimeException}.
+     */
+    ROOT_CAUSE("Root cause"),
+
+    /**
+     * The outermost exception named on the first line of the trace.
+     */
+    TOP_LEVEL("Top-level exception");
+
+    private final String displayName;
+
+    ExceptionRouting(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects exception storms, e.g. a service stuck in a retry loop printing the same trace
+ * thousands of times per second.
+ * <p>
+ * Every trace draws a token from a per-process bucket and from the {@link GlobalStormBucket} shared
+ * by all processes.
+ * While both have tokens, traces are admitted normally. Once either runs dry the process enters
+ * storm mode: traces are only counted per exception name, without resolution, dispatch or
+ * achievement bookkeeping. The storm ends when the per-process bucket has refilled completely,
+ * at which point one {@link StormSummary} per exception name is handed back to the caller.
+ * Names beyond the first {@value #MAX_STORM_NAMES} of a storm are counted together, in a summary
+ * of their own.
+ */
+final class ExceptionStormDetector {
+
+    // Bursts of this many seconds' worth of traces are admitted before a storm is declared
+    static final int BURST_SECONDS = 2;
+
+    // Distinct exception names tracked during one storm; further names are counted as other
+    static final int MAX_STORM_NAMES = 16;
+
+    /**
+     * Aggregate of one exception name over a storm.
+     *
+     * @param exceptionName the name, or {@code null} for all names past {@link #MAX_STORM_NAMES}
+     */
+    record StormSummary(@Nullable String exceptionName, int occurrences, long durationMillis) {
+
+        boolean isOther() {
+            return exceptionName == null;
+        }
+    }
+
+    private final TokenBucket processBucket;
+    private final TokenBucket globalBucket;
+    private final Map<String, int[]> stormCounts = new LinkedHashMap<>();
+    private int otherCount;
+    private boolean inStorm;
+    private long stormStartNanos;
+
+    ExceptionStormDetector(int processRatePerSecond, @NotNull TokenBucket globalBucket, long nowNanos) {
+        this.processBucket = new TokenBucket(processRatePerSecond, (double) processRatePerSecond * BURST_SECONDS, nowNanos);
+        this.globalBucket = globalBucket;
+    }
+
+    /**
+     * Accounts for one trace.
+     *
+     * @return {@code true} if the trace should be handled normally, {@code false} if it was
+     * absorbed into a storm
+     */
+    synchronized boolean admit(@NotNull String exceptionName, long nowNanos) {
+        boolean processToken = processBucket.tryAcquire(nowNanos);
+        if (!inStorm) {
+            if (processToken && globalBucket.tryAcquire(nowNanos)) {
+                return true;
+            }
+            inStorm = true;
+            stormStartNanos = nowNanos;
+        }
+        count(exceptionName);
+        return false;
+    }
+
+    synchronized boolean isInStorm() {
+        return inStorm;
+    }
+
+    /**
+     * Ends the storm if the trace rate has fallen back below the threshold.
+     *
+     * @return the storm's summaries, or an empty list if there is no storm or it is still raging
+     */
+    @NotNull
+    synchronized List<StormSummary> endIfSubsided(long nowNanos) {
+        if (!inStorm || !processBucket.isFull(nowNanos)) {
+            return List.of();
+        }
+        return end(nowNanos);
+    }
+
+    /**
+     * Ends any storm unconditionally, e.g. because the process terminated.
+     */
+    @NotNull
+    synchronized List<StormSummary> endNow(long nowNanos) {
+        return inStorm ? end(nowNanos) : List.of();
+    }
+
+    private void count(@NotNull String exceptionName) {
+        int[] counter = stormCounts.get(exceptionName);
+        if (counter == null) {
+            if (stormCounts.size() >= MAX_STORM_NAMES) {
+                otherCount++;
+                return;
+            }
+            counter = new int[1];
+            stormCounts.put(exceptionName, counter);
+        }
+        counter[0]++;
+    }
+
+    @NotNull
+    private List<StormSummary> end(long nowNanos) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(nowNanos - stormStartNanos);
+        List<StormSummary> summaries = new ArrayList<>(stormCounts.size() + 1);
+        for (Map.Entry<String, int[]> entry : stormCounts.entrySet()) {
+            summaries.add(new StormSummary(entry.getKey(), entry.getValue()[0], durationMillis));
+        }
+        if (otherCount > 0) {
+            summaries.add(new StormSummary(null, otherCount, durationMillis));
+        }
+        stormCounts.clear();
+        otherCount = 0;
+        inStorm = false;
+        return summaries;
+    }
+}
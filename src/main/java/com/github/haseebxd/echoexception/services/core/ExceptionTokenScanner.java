@@ -0,0 +1,147 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hand-written replacement for the {@code \b(\w+Exception|\w+Error)\b} regex.
+ * <p>
+ * The scanner walks the text once, tracking the start of the current identifier run, and only
+ * compares the suffix when a run ends. Matches are returned as a packed {@code long} of start
+ * and end offsets so that neither the match path nor the (far more common) no-match path
+ * allocates; callers materialise a {@code String} only for the token they actually keep.
+ * <p>
+ * ANSI escape sequences are stepped over inline and act as word boundaries, so
+ * {@code ESC[31mNullPointerException ESC[0m} yields the same token as uncolored output.
+ */
+final class ExceptionTokenScanner {
+
+    static final long NO_MATCH = -1L;
+
+    private static final String EXCEPTION_SUFFIX = "Exception";
+    private static final String ERROR_SUFFIX = "Error";
+
+    private ExceptionTokenScanner() {
+    }
+
+    /**
+     * Finds the first identifier in {@code text[from, to)} that ends in {@code Exception} or
+     * {@code Error} and has at least one character before the suffix.
+     *
+     * @return the packed match, or {@link #NO_MATCH}
+     */
+    static long find(@NotNull CharSequence text, int from, int to) {
+        int runStart = -1;
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+                i++;
+                continue;
+            }
+            if (runStart >= 0) {
+                if (endsWithExceptionSuffix(text, runStart, i)) {
+                    return pack(runStart, i);
+                }
+                runStart = -1;
+            }
+            i = AnsiEscapes.isEscapeStart(c) ? AnsiEscapes.skip(text, i, to) : i + 1;
+        }
+        if (runStart >= 0 && endsWithExceptionSuffix(text, runStart, to)) {
+            return pack(runStart, to);
+        }
+        return NO_MATCH;
+    }
+
+    static boolean contains(@NotNull CharSequence text, int from, int to) {
+        return find(text, from, to) != NO_MATCH;
+    }
+
+    static int start(long match) {
+        return (int) (match >>> 32);
+    }
+
+    static int end(long match) {
+        return (int) match;
+    }
+
+    /**
+     * Extends a token backwards over a dotted package prefix, e.g. from {@code NullPointerException}
+     * to {@code java.lang.NullPointerException}, without going below {@code lowerBound}.
+     * <p>
+     * Escape sequences cannot be recognised reliably from their end, so the prefix is found by a
+     * forward pass from {@code lowerBound}. This only runs once a token has been found, and only
+     * over the line that contains it.
+     */
+    static int qualifiedStart(@NotNull CharSequence text, int lowerBound, int tokenStart) {
+        int start = lowerBound;
+        int i = lowerBound;
+        while (i < tokenStart) {
+            char c = text.charAt(i);
+            if (isQualifiedNameChar(c)) {
+                i++;
+            } else {
+                i = AnsiEscapes.isEscapeStart(c) ? AnsiEscapes.skip(text, i, tokenStart) : i + 1;
+                start = i;
+            }
+        }
+        while (start < tokenStart && text.charAt(start) == '.') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skips leading whitespace and escape sequences, e.g. the color code in front of a colored
+     * {@code \tat} frame line.
+     */
+    static int skipWhitespaceAndEscapes(@NotNull CharSequence text, int start, int end) {
+        while (start < end) {
+            char c = text.charAt(start);
+            if (Character.isWhitespace(c)) {
+                start++;
+            } else if (AnsiEscapes.isEscapeStart(c)) {
+                start = AnsiEscapes.skip(text, start, end);
+            } else {
+                break;
+            }
+        }
+        return start;
+    }
+
+    private static boolean endsWithExceptionSuffix(@NotNull CharSequence text, int start, int end) {
+        int length = end - start;
+        char last = text.charAt(end - 1);
+        if (last == 'n') {
+            return length > EXCEPTION_SUFFIX.length() && regionMatches(text, end - EXCEPTION_SUFFIX.length(), EXCEPTION_SUFFIX);
+        }
+        if (last == 'r') {
+            return length > ERROR_SUFFIX.length() && regionMatches(text, end - ERROR_SUFFIX.length(), ERROR_SUFFIX);
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(@NotNull CharSequence text, int offset, @NotNull String suffix) {
+        for (int i = suffix.length() - 2; i >= 0; i--) {
+            if (text.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same character class as the regex \w (ASCII only, as java.util.regex uses by default)
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isQualifiedNameChar(char c) {
+        return isWordChar(c) || c == '.' || c == '$';
+    }
+
+    private static long pack(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFF_FFFFL);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An exception type as named in console output, together with the names of its supertypes,
+ * so voice packs and the sinks can work from text without ever loading a {@link Class}.
+ * <p>
+ * Well-known JDK exceptions come from a table built once (see {@link JdkExceptionTypes}) and are
+ * shared; any other name, such as a project's own {@code com.example.BillingException}, becomes
+ * an <em>unknown</em> type whose only known supertype is itself. Two types are equal when their
+ * names are.
+ */
+public final class ExceptionType {
+
+    private final String name;
+    private final String simpleName;
+    // The type itself first, then its superclasses up to Throwable
+    private final List<String> lineage;
+    private final boolean known;
+    private final boolean error;
+
+    ExceptionType(@NotNull List<String> lineage, boolean known) {
+        this.name = lineage.get(0);
+        this.simpleName = name.substring(name.lastIndexOf('.') + 1);
+        this.lineage = List.copyOf(lineage);
+        this.known = known;
+        this.error = this.lineage.contains(Error.class.getName());
+    }
+
+    /**
+     * The type named {@code name}, a fully qualified or simple name as printed in a stack trace.
+     */
+    @NotNull
+    public static ExceptionType named(@NotNull String name) {
+        ExceptionType known = JdkExceptionTypes.find(name);
+        return known != null ? known : new ExceptionType(List.of(name), false);
+    }
+
+    /**
+     * The type of {@code exceptionClass}; a class outside the JDK table has its hierarchy read once
+     * here.
+     */
+    @NotNull
+    public static ExceptionType of(@NotNull Class<? extends Throwable> exceptionClass) {
+        ExceptionType known = JdkExceptionTypes.find(exceptionClass.getName());
+        return known != null ? known : new ExceptionType(lineageOf(exceptionClass), true);
+    }
+
+    @NotNull
+    static List<String> lineageOf(@NotNull Class<?> exceptionClass) {
+        List<String> lineage = new ArrayList<>();
+        for (Class<?> type = exceptionClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            lineage.add(type.getName());
+        }
+        return lineage;
+    }
+
+    /**
+     * The name as given, fully qualified for known types.
+     */
+    @NotNull
+    public String name() {
+        return name;
+    }
+
+    @NotNull
+    public String simpleName() {
+        return simpleName;
+    }
+
+    /**
+     * This type's name followed by those of its superclasses, nearest first.
+     */
+    @NotNull
+    public List<String> lineage() {
+        return lineage;
+    }
+
+    /**
+     * Whether the supertypes are known, i.e. the type is in the JDK table or came from a class.
+     */
+    public boolean isKnown() {
+        return known;
+    }
+
+    /**
+     * Whether the type is printed with its package, which for an unknown type is what sets a real
+     * exception apart from a word that merely ends in {@code Exception}.
+     */
+    public boolean isQualified() {
+        return name.indexOf('.') > 0;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof ExceptionType other && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
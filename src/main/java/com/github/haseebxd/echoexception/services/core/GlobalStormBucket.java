@@ -0,0 +1,41 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The token bucket every process's {@link ExceptionStormDetector} draws from besides its own, so
+ * that many processes failing at once are limited together. There is one per application, created
+ * with the rate of {@link SoundSettings#getStormThresholdGlobal()}; listeners attached later share
+ * it rather than configuring it again, and the settings page updates it through
+ * {@link #setRatePerSecond(int)}.
+ */
+@Service(Service.Level.APP)
+public final class GlobalStormBucket {
+
+    private final TokenBucket bucket;
+
+    public GlobalStormBucket() {
+        int ratePerSecond = SoundSettings.getInstance().getStormThresholdGlobal();
+        this.bucket = new TokenBucket(ratePerSecond,
+                (double) ratePerSecond * ExceptionStormDetector.BURST_SECONDS, System.nanoTime());
+    }
+
+    public static GlobalStormBucket getInstance() {
+        return ApplicationManager.getApplication().getService(GlobalStormBucket.class);
+    }
+
+    /**
+     * Changes the shared rate; takes effect for every running process at once.
+     */
+    public void setRatePerSecond(int ratePerSecond) {
+        bucket.configure(ratePerSecond, (double) ratePerSecond * ExceptionStormDetector.BURST_SECONDS);
+    }
+
+    @NotNull
+    TokenBucket bucket() {
+        return bucket;
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.*;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.UnmappableCharacterException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.security.*;
+import java.sql.*;
+import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.ZipException;
+import javax.xml.parsers.FactoryConfigurationError;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * The supertype table for well-known JDK exceptions, keyed by both fully qualified and simple
+ * name.
+ * <p>
+ * It is built once from class literals, which the JDK's own loader has mostly loaded already and
+ * which are never initialized here; every lookup afterwards is a single hash read that never
+ * reaches a class loader. The supertypes of each registered type are added as well, so
+ * {@code Exception} or {@code ObjectStreamException} are found like the types beneath them.
+ */
+final class JdkExceptionTypes {
+
+    private static final Map<String, ExceptionType> TYPES = buildTable();
+
+    private JdkExceptionTypes() {
+    }
+
+    /**
+     * @param name a fully qualified name, or a simple name as printed without its package
+     * @return the type, or {@code null} if it is not a known JDK exception
+     */
+    @Nullable
+    static ExceptionType find(@NotNull String name) {
+        return TYPES.get(name);
+    }
+
+    @SafeVarargs
+    private static void register(@NotNull Map<String, ExceptionType> table,
+                                 @NotNull Class<? extends Throwable>... classes) {
+        for (Class<? extends Throwable> clazz : classes) {
+            List<String> lineage = ExceptionType.lineageOf(clazz);
+            for (int i = 0; i < lineage.size(); i++) {
+                String name = lineage.get(i);
+                if (!table.containsKey(name)) {
+                    ExceptionType type = new ExceptionType(lineage.subList(i, lineage.size()), true);
+                    table.put(name, type);
+                    table.putIfAbsent(type.simpleName(), type);
+                }
+            }
+        }
+    }
+
+    // Registered package by package, so a simple name shared by two packages resolves to the
+    // one in the more common package
+    private static Map<String, ExceptionType> buildTable() {
+        Map<String, ExceptionType> table = new HashMap<>(1_024);
+
+        // java.lang
+        register(table,
+                Throwable.class, Exception.class, Error.class, RuntimeException.class, NullPointerException.class, ArithmeticException.class,
+                ArrayIndexOutOfBoundsException.class, ArrayStoreException.class, ClassCastException.class,
+                ClassNotFoundException.class, CloneNotSupportedException.class, EnumConstantNotPresentException.class,
+                IllegalAccessException.class, IllegalArgumentException.class, IllegalCallerException.class,
+                IllegalMonitorStateException.class, IllegalStateException.class, IllegalThreadStateException.class,
+                IndexOutOfBoundsException.class, InstantiationException.class, InterruptedException.class,
+                LayerInstantiationException.class, NegativeArraySizeException.class, NoSuchFieldException.class,
+                NoSuchMethodException.class, NumberFormatException.class, ReflectiveOperationException.class,
+                SecurityException.class, StringIndexOutOfBoundsException.class, TypeNotPresentException.class,
+                UnsupportedOperationException.class, WrongThreadException.class, MatchException.class,
+                AbstractMethodError.class, AssertionError.class, BootstrapMethodError.class,
+                ClassCircularityError.class, ClassFormatError.class, ExceptionInInitializerError.class,
+                IllegalAccessError.class, IncompatibleClassChangeError.class, InstantiationError.class,
+                InternalError.class, LinkageError.class, NoClassDefFoundError.class, NoSuchFieldError.class,
+                NoSuchMethodError.class, OutOfMemoryError.class, StackOverflowError.class,
+                UnknownError.class, UnsatisfiedLinkError.class, UnsupportedClassVersionError.class,
+                VerifyError.class, VirtualMachineError.class);
+
+        // java.io
+        register(table,
+                IOException.class, FileNotFoundException.class, EOFException.class, UncheckedIOException.class,
+                InterruptedIOException.class, CharConversionException.class, InvalidClassException.class,
+                InvalidObjectException.class, NotActiveException.class, NotSerializableException.class,
+                ObjectStreamException.class, OptionalDataException.class, StreamCorruptedException.class,
+                SyncFailedException.class, UnsupportedEncodingException.class, UTFDataFormatException.class,
+                WriteAbortedException.class, IOError.class);
+
+        // java.net
+        register(table,
+                SocketException.class, SocketTimeoutException.class, ConnectException.class, BindException.class,
+                HttpRetryException.class, MalformedURLException.class, NoRouteToHostException.class,
+                PortUnreachableException.class, ProtocolException.class, UnknownHostException.class,
+                UnknownServiceException.class, URISyntaxException.class);
+
+        // java.sql
+        register(table,
+                SQLException.class, BatchUpdateException.class, SQLClientInfoException.class,
+                SQLDataException.class, SQLFeatureNotSupportedException.class,
+                SQLIntegrityConstraintViolationException.class, SQLInvalidAuthorizationSpecException.class,
+                SQLNonTransientConnectionException.class, SQLNonTransientException.class,
+                SQLRecoverableException.class, SQLSyntaxErrorException.class, SQLTimeoutException.class,
+                SQLTransactionRollbackException.class, SQLTransientConnectionException.class,
+                SQLTransientException.class);
+
+        // java.util
+        register(table,
+                ConcurrentModificationException.class, DuplicateFormatFlagsException.class,
+                EmptyStackException.class, FormatFlagsConversionMismatchException.class,
+                FormatterClosedException.class, IllegalFormatCodePointException.class,
+                IllegalFormatConversionException.class, IllegalFormatException.class,
+                IllegalFormatFlagsException.class, IllegalFormatPrecisionException.class,
+                IllegalFormatWidthException.class, IllformedLocaleException.class, InputMismatchException.class,
+                InvalidPropertiesFormatException.class, MissingFormatArgumentException.class,
+                MissingFormatWidthException.class, MissingResourceException.class, NoSuchElementException.class,
+                TooManyListenersException.class, UnknownFormatConversionException.class,
+                UnknownFormatFlagsException.class, ServiceConfigurationError.class);
+
+        // java.util.concurrent
+        register(table,
+                BrokenBarrierException.class, CancellationException.class, CompletionException.class,
+                ExecutionException.class, RejectedExecutionException.class, TimeoutException.class);
+
+        // java.security
+        register(table,
+                GeneralSecurityException.class, DigestException.class, InvalidAlgorithmParameterException.class,
+                InvalidKeyException.class, InvalidParameterException.class, KeyException.class,
+                KeyManagementException.class, KeyStoreException.class, NoSuchAlgorithmException.class,
+                NoSuchProviderException.class, ProviderException.class, SignatureException.class,
+                UnrecoverableEntryException.class, UnrecoverableKeyException.class);
+
+        // javax.xml.parsers
+        register(table, ParserConfigurationException.class, FactoryConfigurationError.class);
+
+        // java.text
+        register(table, ParseException.class);
+
+        // Frequently logged JDK exceptions outside the searched packages
+        register(table,
+                InvocationTargetException.class, UndeclaredThrowableException.class,
+                BufferOverflowException.class, BufferUnderflowException.class,
+                CharacterCodingException.class, MalformedInputException.class, UnmappableCharacterException.class,
+                FileSystemException.class, NoSuchFileException.class, AccessDeniedException.class,
+                FileAlreadyExistsException.class, DirectoryNotEmptyException.class, NotDirectoryException.class,
+                InvalidPathException.class, DateTimeException.class, DateTimeParseException.class,
+                ZipException.class, DataFormatException.class);
+
+        return Map.copyOf(table);
+    }
+}
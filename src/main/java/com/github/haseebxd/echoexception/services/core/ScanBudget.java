@@ -0,0 +1,69 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many characters per second one process's console output is fully parsed for.
+ * <p>
+ * Parsed characters are charged to a {@link TokenBucket} after the fact. While the bucket is in
+ * credit, streams are scanned according to their {@link ConsoleScanPolicy}. Once it is exhausted
+ * the listener degrades to sampled scanning: chunks are only checked with the cheap substring
+ * prefilter, and only every {@link #SAMPLE_INTERVAL}th chunk that passes it is parsed, unless a
+ * trace is already open. Because skipped text is not charged, the bucket refills and full
+ * scanning resumes as soon as the output rate drops below the budget.
+ * <p>
+ * Character counts for the three outcomes are kept so the degradation can be reported.
+ */
+final class ScanBudget {
+
+    // While over budget, one in this many candidate chunks is still parsed
+    static final int SAMPLE_INTERVAL = 4;
+
+    private final TokenBucket bucket;
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final AtomicLong parsedChars = new AtomicLong();
+    private final AtomicLong prefilteredChars = new AtomicLong();
+    private final AtomicLong sampledOutChars = new AtomicLong();
+
+    ScanBudget(long charsPerSecond) {
+        long rate = Math.max(1, charsPerSecond);
+        this.bucket = new TokenBucket(rate, rate, System.nanoTime());
+    }
+
+    boolean isExhausted(long nowNanos) {
+        return !bucket.hasTokens(nowNanos);
+    }
+
+    /**
+     * Whether an over-budget chunk that passed the prefilter should be parsed anyway.
+     */
+    boolean sampleNext() {
+        return sampleCounter.getAndIncrement() % SAMPLE_INTERVAL == 0;
+    }
+
+    void recordParsed(int chars, long nowNanos) {
+        parsedChars.addAndGet(chars);
+        bucket.consume(nowNanos, chars);
+    }
+
+    void recordPrefiltered(int chars) {
+        prefilteredChars.addAndGet(chars);
+    }
+
+    void recordSampledOut(int chars) {
+        sampledOutChars.addAndGet(chars);
+    }
+
+    boolean hasSampled() {
+        return sampledOutChars.get() > 0;
+    }
+
+    @NotNull
+    String describe() {
+        return "parsed " + parsedChars.get() + " chars, prefiltered " + prefilteredChars.get()
+                + " chars, skipped " + sampledOutChars.get() + " chars while over budget";
+    }
+}
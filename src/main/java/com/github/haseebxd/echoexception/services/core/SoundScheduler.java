@@ -0,0 +1,276 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import com.github.haseebxd.echoexception.sound.engine.PlaybackResult;
+import com.github.haseebxd.echoexception.sound.engine.VoicePriority;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which exception sounds play, and when.
+ * <p>
+ * Two cooldowns replace the old global debounce. An exception type that played recently is not
+ * played again until its type cooldown is over; any other exception waits for the shorter pack
+ * cooldown, the minimum gap between two clips of one voice pack. Requests that have to wait are
+ * kept in a queue ordered by severity, then recency, so that when the pack is free again the most
+ * severe and most recent exception plays rather than the first one seen. A request that outranks
+ * the clip that is playing does not wait at all: it cuts that clip off and plays at once.
+ * <p>
+ * The queue is a skip list and every other piece of state is a single atomic, so an event costs
+ * O(log n) and no lock is ever held. A single drainer at a time starts the chosen clips, and
+ * starting one only hands it to the {@link Player}, which never blocks on audio I/O.
+ */
+final class SoundScheduler {
+    private static final Logger LOG = Logger.getInstance(SoundScheduler.class);
+
+    /** Requests still waiting after this long are dropped; the sound would no longer match the exception. */
+    static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(2);
+    static final int MAX_PENDING = 16;
+
+    /**
+     * Starts clips for the scheduler.
+     */
+    interface Player {
+        @NotNull
+        CompletableFuture<PlaybackResult> play(@NotNull Request request);
+
+        /**
+         * Cuts off every playing clip that {@code priority} outranks.
+         */
+        void preemptBelow(@NotNull VoicePriority priority);
+    }
+
+    /**
+     * One sound waiting to be scheduled.
+     */
+    static final class Request {
+        final ExceptionType exceptionType;
+        final VoicePriority priority;
+        final String packId;
+        final String resourcePath;
+        final int volume;
+        final long submittedNanos;
+        final long sequence;
+        final CompletableFuture<PlaybackResult> result = new CompletableFuture<>();
+
+        Request(@NotNull ExceptionType exceptionType, @NotNull VoicePriority priority,
+                @NotNull String packId, @NotNull String resourcePath, int volume, long submittedNanos, long sequence) {
+            this.exceptionType = exceptionType;
+            this.priority = priority;
+            this.packId = packId;
+            this.resourcePath = resourcePath;
+            this.volume = volume;
+            this.submittedNanos = submittedNanos;
+            this.sequence = sequence;
+        }
+
+        void skip() {
+            result.complete(PlaybackResult.skipped(resourcePath));
+        }
+    }
+
+    private record Playing(@NotNull VoicePriority priority, @NotNull CompletableFuture<PlaybackResult> result) {
+    }
+
+    private record PackCooldown(@NotNull String packId, long freeAtNanos) {
+    }
+
+    // Most severe first, then most recent
+    private static final Comparator<Request> ORDER = Comparator
+            .comparing((Request request) -> request.priority).reversed()
+            .thenComparing(Comparator.comparingLong((Request request) -> request.sequence).reversed());
+
+    private final Player player;
+    private final ScheduledExecutorService retryExecutor;
+    private final LongSupplier clock;
+
+    private final NavigableSet<Request> pending = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<ExceptionType, Request> pendingByType = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<ExceptionType, Long> lastPlayedByType = new ConcurrentHashMap<>();
+    private final AtomicReference<PackCooldown> packCooldown = new AtomicReference<>();
+    private final AtomicReference<Playing> playing = new AtomicReference<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+
+    private volatile long typeCooldownNanos;
+    private volatile long packCooldownNanos;
+
+    SoundScheduler(@NotNull Player player, @NotNull ScheduledExecutorService retryExecutor, @NotNull LongSupplier clock) {
+        this.player = player;
+        this.retryExecutor = retryExecutor;
+        this.clock = clock;
+    }
+
+    void setCooldowns(long typeCooldownMs, long packCooldownMs) {
+        typeCooldownNanos = TimeUnit.MILLISECONDS.toNanos(typeCooldownMs);
+        packCooldownNanos = TimeUnit.MILLISECONDS.toNanos(packCooldownMs);
+    }
+
+    /**
+     * Schedules a sound.
+     *
+     * @return a future completed with the playback result, or with a skipped result if the request
+     *         was held back by a cooldown, replaced by a newer one of the same type, or went stale
+     */
+    @NotNull
+    CompletableFuture<PlaybackResult> submit(@NotNull ExceptionType exceptionType,
+                                             @NotNull VoicePriority priority, @NotNull String packId,
+                                             @NotNull String resourcePath, int volume) {
+        long now = clock.getAsLong();
+        Request request = new Request(exceptionType, priority, packId, resourcePath, volume, now, sequence.incrementAndGet());
+        if (isTypeCoolingDown(request, now)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("EchoException: " + exceptionType.simpleName() + " is cooling down, skipped");
+            }
+            request.skip();
+            return request.result;
+        }
+
+        // A newer request of the same type replaces the waiting one
+        Request replaced = pendingByType.put(exceptionType, request);
+        if (replaced != null && removePending(replaced)) {
+            replaced.skip();
+        }
+        pending.add(request);
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            Request last = pending.pollLast();
+            if (last != null) {
+                pendingCount.decrementAndGet();
+                pendingByType.remove(last.exceptionType, last);
+                last.skip();
+            }
+        }
+        drain();
+        return request.result;
+    }
+
+    /**
+     * Forgets all cooldowns, e.g. after the voice pack changed.
+     */
+    void reset() {
+        lastPlayedByType.clear();
+        packCooldown.set(null);
+    }
+
+    // Only one thread drains at a time; a call that finds another drainer makes it go round again
+    void drain() {
+        if (drainers.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        boolean drained = false;
+        try {
+            do {
+                drainOnce();
+                missed = drainers.addAndGet(-missed);
+            } while (missed != 0);
+            drained = true;
+        } finally {
+            // A drainer that fails must not leave the count raised, or every later drain() would
+            // return at once and no sound would play again
+            if (!drained) {
+                drainers.set(0);
+            }
+        }
+    }
+
+    private void drainOnce() {
+        long now = clock.getAsLong();
+        Request best;
+        while ((best = first()) != null) {
+            if (now - best.submittedNanos > MAX_WAIT_NANOS || isTypeCoolingDown(best, now)) {
+                if (removePending(best)) {
+                    best.skip();
+                }
+                continue;
+            }
+            Playing current = playing.get();
+            boolean preempts = current != null && best.priority.outranks(current.priority());
+            long packFreeInNanos = packFreeInNanos(best.packId, now);
+            if (packFreeInNanos > 0 && !preempts) {
+                scheduleRetry(packFreeInNanos);
+                return;
+            }
+            if (removePending(best)) {
+                start(best, preempts, now);
+            }
+        }
+    }
+
+    private void start(@NotNull Request request, boolean preempts, long now) {
+        lastPlayedByType.put(request.exceptionType, now);
+        packCooldown.set(new PackCooldown(request.packId, now + packCooldownNanos));
+        Playing started = new Playing(request.priority, request.result);
+        playing.set(started);
+        request.result.whenComplete((r, e) -> playing.compareAndSet(started, null));
+        if (preempts) {
+            player.preemptBelow(request.priority);
+        }
+        CompletableFuture<PlaybackResult> played;
+        try {
+            played = player.play(request);
+        } catch (RuntimeException e) {
+            request.result.completeExceptionally(e);
+            return;
+        }
+        played.whenComplete((r, e) -> {
+            if (e != null) {
+                request.result.completeExceptionally(e);
+            } else {
+                request.result.complete(r);
+            }
+        });
+    }
+
+    // Not isEmpty() then first(): submit() may take the last request in between
+    @Nullable
+    private Request first() {
+        Iterator<Request> iterator = pending.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private boolean removePending(@NotNull Request request) {
+        if (!pending.remove(request)) {
+            return false;
+        }
+        pendingCount.decrementAndGet();
+        pendingByType.remove(request.exceptionType, request);
+        return true;
+    }
+
+    private boolean isTypeCoolingDown(@NotNull Request request, long now) {
+        Long lastPlayed = lastPlayedByType.get(request.exceptionType);
+        return lastPlayed != null && now - lastPlayed < typeCooldownNanos;
+    }
+
+    private long packFreeInNanos(@NotNull String packId, long now) {
+        PackCooldown cooldown = packCooldown.get();
+        return cooldown == null || !cooldown.packId().equals(packId) ? 0 : cooldown.freeAtNanos() - now;
+    }
+
+    private void scheduleRetry(long delayNanos) {
+        if (retryScheduled.compareAndSet(false, true)) {
+            retryExecutor.schedule(() -> {
+                retryScheduled.set(false);
+                drain();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package com.github.haseebxd.echoexception.services.core;
 
 import com.github.haseebxd.echoexception.services.settings.SoundSettings;
-import com.github.haseebxd.echoexception.sound.GameSoundType;
+import com.github.haseebxd.echoexception.sound.engine.AudioOutputEngine;
+import com.github.haseebxd.echoexception.sound.engine.LatencyHistogram;
+import com.github.haseebxd.echoexception.sound.engine.PlaybackResult;
+import com.github.haseebxd.echoexception.sound.engine.VoicePriority;
 import com.github.haseebxd.echoexception.util.SoundPlayer;
 import com.github.haseebxd.echoexception.sound.voices.VoicePack;
-import com.github.haseebxd.echoexception.sound.voices.VoicePackFactory;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
 
 public final class SoundTriggerService {
     private static final Logger LOG = Logger.getInstance(SoundTriggerService.class);
     private static final SoundTriggerService INSTANCE = new SoundTriggerService();
-    private static final long DEBOUNCE_INTERVAL_MS = 6_000;
 
     private final SoundPlayer player = new SoundPlayer();
-    private final AtomicLong lastSoundTime = new AtomicLong(0);
-    private final AtomicBoolean isPlaying = new AtomicBoolean(false);
+    private final SoundScheduler scheduler = new SoundScheduler(new SoundScheduler.Player() {
+        @NotNull
+        @Override
+        public CompletableFuture<PlaybackResult> play(@NotNull SoundScheduler.Request request) {
+            return player.play(request.resourcePath, request.volume, request.priority);
+        }
+
+        @Override
+        public void preemptBelow(@NotNull VoicePriority priority) {
+            AudioOutputEngine.getInstance().preemptBelow(priority);
+        }
+    }, AppExecutorUtil.getAppScheduledExecutorService(), System::nanoTime);
+    private final LatencyHistogram triggerLatency = new LatencyHistogram();
 
     private SoundTriggerService() {
         LOG.info("EchoException: SoundTriggerService instance created");
@@ -27,91 +41,67 @@ public final class SoundTriggerService {
         return INSTANCE;
     }
 
-    public void playSound(Class<? extends Throwable> exceptionClass) {
-        LOG.info("EchoException: playSound() called for: " + exceptionClass.getSimpleName());
-
-        // Check debounce condition first
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastSoundTime.get();
-
-        if (currentTime - lastTime < DEBOUNCE_INTERVAL_MS) {
-            LOG.debug("EchoException: Sound request debounced. Time since last sound: " +
-                    (currentTime - lastTime) + "ms");
-            return;
-        }
+    /**
+     * Time from an exception being detected until the first block of its clip reached the audio
+     * output, for every sound that was played. This includes the wait in the dispatcher queue.
+     */
+    public LatencyHistogram getTriggerLatency() {
+        return triggerLatency;
+    }
 
-        // Atomic check-and-set to prevent race conditions
-        if (!isPlaying.compareAndSet(false, true)) {
-            LOG.debug("EchoException: Sound already playing, skipping");
-            return;
-        }
+    /**
+     * Plays the selected voice pack's clip for {@code exceptionType}. Returns at once; nothing
+     * here waits for audio.
+     *
+     * @param detectedNanos {@link System#nanoTime()} at which the exception was detected, see
+     *                      {@link ExceptionEvent#detectedNanos()}
+     * @return a future completed once the clip has been heard, or with a non-audible result if it
+     *         was held back by a cooldown, disabled, dropped or failed
+     */
+    public CompletableFuture<PlaybackResult> playSound(ExceptionType exceptionType, long detectedNanos) {
+        VoicePriority priority = VoicePriority.of(exceptionType);
 
         try {
-            // Update last sound time immediately to prevent other threads
-            lastSoundTime.set(currentTime);
-
-            // Check if sound and notifications are enabled
-            boolean isSoundEnabled = SoundSettings.getInstance().isSoundEnabled();
-            boolean isNotificationsEnabled = SoundSettings.getInstance().isNotificationEnabled();
-
-            LOG.warn("EchoException: Sound enabled: " + isSoundEnabled);
-
-            if (!isSoundEnabled) {
-                LOG.debug("EchoException: Sound & Notifications are disabled by user settings.");
-                return;
+            SoundSettings settings = SoundSettings.getInstance();
+            if (!settings.isSoundEnabled()) {
+                return CompletableFuture.completedFuture(PlaybackResult.skipped(null));
             }
 
-            // Get sound settings
-            GameSoundType type = SoundSettings.getInstance().getSoundType();
-            int rawVolume = SoundSettings.getInstance().getVolume();
-            
-            int scaledVolume = 50 + (rawVolume * 50 / 100); // remap 0–100 to 50–100
-            
-            LOG.warn("EchoException: Sound type: " + type + ", Volume: " + scaledVolume);
-
-            // Get voice pack
-            VoicePack pack = VoicePackFactory.getVoicePack(type);
-            LOG.warn("EchoException: Voice pack: " + (pack != null ? pack.getClass().getSimpleName() : "null"));
+            VoicePackRegistry.Entry entry = VoicePackRegistry.getInstance().getOrDefault(settings.getSoundPackId());
+            // The engine maps the setting onto a decibel curve, so it is passed through unchanged
+            int volume = settings.getVolume();
+            VoicePack pack = entry.pack();
+            String path = pack.getSoundForException(exceptionType);
 
-            if (pack == null) {
-                LOG.error("EchoException: Voice pack is null!");
-                return;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("EchoException: Sound for " + exceptionType.simpleName() + " from " + entry
+                        + ": '" + path + "', volume " + volume);
             }
 
-            // Get sound path
-            String path = pack.getSoundForException(exceptionClass);
-            LOG.warn("EchoException: Sound file path: '" + path + "'");
-
             if (path != null && !path.isEmpty()) {
-                LOG.warn("EchoException: Attempting to play sound: " + path);
-
-                // Try to play the sound
-                player.play(path, scaledVolume);
-                LOG.warn("EchoException: Sound play method called");
-
-                LOG.warn(String.format("EchoException: Sound play method completed for '%s' (%s)",
-                        path, exceptionClass.getSimpleName()));
+                // Cooldowns, queueing and preemption are up to the scheduler
+                scheduler.setCooldowns(settings.getTypeCooldownMs(), settings.getPackCooldownMs());
+                CompletableFuture<PlaybackResult> result = scheduler.submit(exceptionType, priority, entry.id(), path, volume);
+                result.thenAccept(r -> {
+                    triggerLatency.recordFirstFrame(r, detectedNanos);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("EchoException: Playback finished for " + exceptionType.simpleName()
+                                + ": " + r + ", trigger latency " + triggerLatency);
+                    }
+                });
+                return result;
             } else {
-                LOG.warn("EchoException: No sound path found for exception " + exceptionClass.getSimpleName());
+                return CompletableFuture.completedFuture(PlaybackResult.skipped(null));
             }
         } catch (Exception e) {
             LOG.error("EchoException: Exception in playSound()", e);
-        } finally {
-            // Reset playing flag after a short delay to allow sound to start
-            // This prevents immediate subsequent calls but allows the debounce timer to work
-            try {
-                Thread.sleep(100); // Small delay to ensure sound starts
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
-            }
-            isPlaying.set(false);
+            return CompletableFuture.completedFuture(PlaybackResult.failed(null, 0));
         }
     }
 
   // Method to reset debounce manually if needed
     public void resetDebounce() {
-        lastSoundTime.set(0);
-        isPlaying.set(false);
+        scheduler.reset();
         LOG.debug("EchoException: Debounce reset manually");
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A complete stack trace recognised in console output: the header exception followed by
+ * its {@code Caused by:} and {@code Suppressed:} sections, in the order they were printed.
+ * Only a bounded prefix of every section is retained, so a block's size does not depend
+ * on how long the printed trace was.
+ * <p>
+ * The JVM prints the main cause chain unindented and nests the sections of a suppressed
+ * exception (including its own causes) one tab deeper. The root cause is therefore the last
+ * unindented section; it and the suppressed sections are located once, when the block is built.
+ * The root cause is kept apart from the retained sections, so it is found however many sections
+ * were printed before it.
+ */
+final class StackTraceBlock {
+
+    enum Kind {
+        HEADER,
+        CAUSED_BY,
+        SUPPRESSED
+    }
+
+    /**
+     * One exception of the trace together with the frames printed directly beneath it.
+     *
+     * @param kind          how the section was introduced
+     * @param indent        leading whitespace of the line that introduced the section
+     * @param exceptionName simple name of the exception, e.g. {@code NullPointerException}; empty
+     *                      if the class printed does not look like an exception
+     * @param qualifiedName the name as printed, e.g. {@code java.lang.NullPointerException}; empty
+     *                      with {@code exceptionName}
+     * @param frameCount    number of {@code at} lines seen for this section
+     * @param topFrames     the first frames of the section, without the leading {@code at}
+     */
+    record Segment(@NotNull Kind kind,
+                   int indent,
+                   @NotNull String exceptionName,
+                   @NotNull String qualifiedName,
+                   int frameCount,
+                   @NotNull List<String> topFrames) {
+    }
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<Segment> segments;
+    private final int droppedSegments;
+    private final Segment rootCause;
+    private final List<Segment> suppressed;
+
+    private StackTraceBlock(@NotNull List<Segment> segments, int droppedSegments,
+                            @NotNull Segment rootCause, @NotNull List<Segment> suppressed) {
+        this.segments = Collections.unmodifiableList(segments);
+        this.droppedSegments = droppedSegments;
+        this.rootCause = rootCause;
+        this.suppressed = suppressed;
+    }
+
+    /**
+     * The outermost exception, i.e. the one named on the first line of the trace.
+     */
+    @NotNull
+    Segment header() {
+        return segments.get(0);
+    }
+
+    /**
+     * The innermost exception of the main {@code Caused by:} chain, or the header if it has no cause.
+     */
+    @NotNull
+    Segment rootCause() {
+        return rootCause;
+    }
+
+    /**
+     * The main cause chain from the header down to the root cause; causes dropped because the
+     * block was full are missing between the retained ones and the root cause.
+     */
+    @NotNull
+    List<Segment> causeChain() {
+        List<Segment> chain = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.kind() != Kind.SUPPRESSED && segment.indent() == 0) {
+                chain.add(segment);
+            }
+        }
+        if (chain.get(chain.size() - 1) != rootCause) {
+            chain.add(rootCause);
+        }
+        return chain;
+    }
+
+    @NotNull
+    List<Segment> suppressed() {
+        return suppressed;
+    }
+
+    @NotNull
+    List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * Number of sections that were seen but not retained because the block was full.
+     */
+    int droppedSegments() {
+        return droppedSegments;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the header exception name and its first {@code frames} frames. Two
+     * traces thrown from the same call site share a fingerprint; the same exception type thrown
+     * elsewhere does not.
+     */
+    long fingerprint(int frames) {
+        Segment header = header();
+        long hash = hash(FNV_OFFSET_BASIS, header.exceptionName());
+        List<String> topFrames = header.topFrames();
+        int count = Math.min(frames, topFrames.size());
+        for (int i = 0; i < count; i++) {
+            hash = (hash ^ '\n') * FNV_PRIME;
+            hash = hash(hash, topFrames.get(i));
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, @NotNull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "StackTraceBlock" + segments + (droppedSegments > 0 ? " (+" + droppedSegments + " dropped)" : "");
+    }
+
+    /**
+     * Mutable accumulator used by {@link StackTraceParser} while a trace is still being printed.
+     */
+    static final class Builder {
+        private final int maxSegments;
+        private final int maxFramesPerSegment;
+        private final List<Segment> segments = new ArrayList<>(2);
+
+        private Kind kind;
+        private int indent;
+        private String exceptionName;
+        private String qualifiedName;
+        private int frameCount;
+        private List<String> topFrames;
+        // Whether the current section only counts as the root cause, the block being full
+        private boolean overflow;
+        private int droppedSegments;
+        private Segment rootCause;
+        private List<Segment> suppressed;
+
+        Builder(int maxSegments, int maxFramesPerSegment) {
+            this.maxSegments = maxSegments;
+            this.maxFramesPerSegment = maxFramesPerSegment;
+        }
+
+        void startSegment(@NotNull Kind kind, int indent,
+                          @NotNull String exceptionName, @NotNull String qualifiedName) {
+            closeSegment();
+            overflow = segments.size() >= maxSegments;
+            if (overflow) {
+                droppedSegments++;
+                if (kind != Kind.CAUSED_BY || indent != 0) {
+                    return;
+                }
+            }
+            this.kind = kind;
+            this.indent = kind == Kind.HEADER ? 0 : indent;
+            this.exceptionName = exceptionName;
+            this.qualifiedName = qualifiedName;
+            this.frameCount = 0;
+            this.topFrames = null;
+        }
+
+        /**
+         * Whether a frame would be retained by {@link #addFrame}; lets callers avoid
+         * materialising frame text that would be discarded anyway.
+         */
+        boolean wantsFrameText() {
+            return kind != null && frameCount < maxFramesPerSegment;
+        }
+
+        void addFrame(@Nullable String frame) {
+            if (kind == null) {
+                return;
+            }
+            if (frame != null && frameCount < maxFramesPerSegment) {
+                if (topFrames == null) {
+                    topFrames = new ArrayList<>(maxFramesPerSegment);
+                }
+                topFrames.add(frame);
+            }
+            frameCount++;
+        }
+
+        int currentFrameCount() {
+            return kind == null ? 0 : frameCount;
+        }
+
+        @NotNull
+        StackTraceBlock build() {
+            closeSegment();
+            return new StackTraceBlock(segments, droppedSegments, rootCause,
+                    suppressed == null ? List.of() : Collections.unmodifiableList(suppressed));
+        }
+
+        private void closeSegment() {
+            if (kind == null) {
+                return;
+            }
+            List<String> frames = topFrames == null ? List.of() : Collections.unmodifiableList(topFrames);
+            Segment segment = new Segment(kind, indent, exceptionName, qualifiedName, frameCount, frames);
+            kind = null;
+            if (segment.kind() != Kind.SUPPRESSED && segment.indent() == 0) {
+                rootCause = segment;
+            }
+            if (overflow) {
+                return;
+            }
+            if (segment.kind() == Kind.SUPPRESSED) {
+                if (suppressed == null) {
+                    suppressed = new ArrayList<>(2);
+                }
+                suppressed.add(segment);
+            }
+            segments.add(segment);
+        }
+    }
+}
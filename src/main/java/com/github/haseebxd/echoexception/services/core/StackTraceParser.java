@@ -0,0 +1,284 @@
+package com.github.haseebxd.echoexception.services.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Incremental stack-trace recogniser for one console output stream.
+ * <p>
+ * Console text arrives in arbitrarily sized chunks, so a line (or an exception name) may be
+ * split across two {@code onTextAvailable} calls. The parser assembles lines across chunks and
+ * runs a small state machine over them:
+ * <pre>
+ *   IDLE  --header line-->  IN_TRACE
+ *   IN_TRACE --"\tat ..." | "Caused by:" | "Suppressed:" | "... N more"-->  IN_TRACE
+ *   IN_TRACE --any other line | flush-->  IDLE (emits one {@link StackTraceBlock})
+ * </pre>
+ * Every character is examined once: complete lines are classified in place on the incoming
+ * chunk, and only the unterminated tail of a chunk is copied into a carry buffer. The carry
+ * buffer and the retained trace are both capped, so memory stays bounded however much the
+ * process prints.
+ * <p>
+ * Instances are confined to a single stream; all entry points are synchronized so an idle
+ * flush from a timer thread cannot interleave with {@link #feed}.
+ */
+final class StackTraceParser {
+
+    static final int MAX_LINE_LENGTH = 4_096;
+    static final int MAX_SEGMENTS = 16;
+    static final int MAX_FRAMES_PER_SEGMENT = 8;
+
+    // Lines of a multi-line exception message tolerated between a header and its first frame
+    private static final int MAX_MESSAGE_LINES = 3;
+
+    private static final String FRAME_PREFIX = "at ";
+    private static final String CAUSED_BY_PREFIX = "Caused by: ";
+    private static final String SUPPRESSED_PREFIX = "Suppressed: ";
+    private static final String ELLIPSIS_PREFIX = "...";
+
+    interface TraceConsumer {
+        void accept(@NotNull StackTraceBlock block);
+    }
+
+    private final TraceConsumer consumer;
+
+    private final StringBuilder carry = new StringBuilder();
+    private boolean carryTruncated;
+
+    @Nullable
+    private StackTraceBlock.Builder current;
+    private int messageLines;
+    private long lastInputNanos;
+
+    StackTraceParser(@NotNull TraceConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Consumes the next chunk of stream output. Traces completed by this chunk are passed to the
+     * consumer before the method returns; a trace still open at the end of the chunk is kept
+     * until more output, {@link #flushIfIdle} or {@link #flush} completes it.
+     */
+    synchronized void feed(@NotNull CharSequence chunk) {
+        lastInputNanos = System.nanoTime();
+        feedLines(chunk, 0);
+    }
+
+    private void feedLines(@NotNull CharSequence chunk, int lineStart) {
+        int length = chunk.length();
+        for (int i = lineStart; i < length; i++) {
+            if (chunk.charAt(i) != '\n') {
+                continue;
+            }
+            if (carry.length() > 0 || carryTruncated) {
+                appendToCarry(chunk, lineStart, i);
+                processLine(carry, 0, carry.length());
+                carry.setLength(0);
+                carryTruncated = false;
+            } else {
+                processLine(chunk, lineStart, Math.min(i, lineStart + MAX_LINE_LENGTH));
+            }
+            lineStart = i + 1;
+        }
+
+        if (lineStart < length) {
+            appendToCarry(chunk, lineStart, length);
+        }
+    }
+
+    /**
+     * Consumes a chunk the caller has determined cannot contain an exception header, without
+     * classifying its lines. A line that started in an earlier chunk is still completed and
+     * parsed normally, so a header split across the chunk boundary is not lost; the rest is only
+     * searched for its last line break to keep line assembly in step with the stream.
+     */
+    synchronized void skip(@NotNull CharSequence chunk) {
+        lastInputNanos = System.nanoTime();
+
+        int length = chunk.length();
+        int lastNewline = lastIndexOf(chunk, '\n', length);
+        if (lastNewline < 0) {
+            appendToCarry(chunk, 0, length);
+            return;
+        }
+
+        if (carry.length() > 0 || carryTruncated) {
+            int firstNewline = indexOf(chunk, '\n', lastNewline);
+            appendToCarry(chunk, 0, firstNewline);
+            processLine(carry, 0, carry.length());
+            carry.setLength(0);
+            carryTruncated = false;
+            if (current != null) {
+                // the completed line opened a trace, so its frames must not be skipped
+                feedLines(chunk, firstNewline + 1);
+                return;
+            }
+        }
+        if (lastNewline + 1 < length) {
+            appendToCarry(chunk, lastNewline + 1, length);
+        }
+    }
+
+    /**
+     * Emits the open trace if no output has arrived for {@code quietNanos}.
+     *
+     * @return {@code true} if nothing is pending any more
+     */
+    synchronized boolean flushIfIdle(long nowNanos, long quietNanos) {
+        if (current == null) {
+            return true;
+        }
+        if (nowNanos - lastInputNanos < quietNanos) {
+            return false;
+        }
+        emit();
+        return true;
+    }
+
+    /**
+     * Completes any buffered line and open trace, e.g. when the process terminates.
+     */
+    synchronized void flush() {
+        if (carry.length() > 0) {
+            processLine(carry, 0, carry.length());
+            carry.setLength(0);
+            carryTruncated = false;
+        }
+        if (current != null) {
+            emit();
+        }
+    }
+
+    synchronized boolean hasPendingTrace() {
+        return current != null;
+    }
+
+    private void appendToCarry(@NotNull CharSequence chunk, int start, int end) {
+        int room = MAX_LINE_LENGTH - carry.length();
+        if (end - start > room) {
+            end = start + room;
+            carryTruncated = true;
+        }
+        carry.append(chunk, start, end);
+    }
+
+    private void processLine(@NotNull CharSequence line, int start, int end) {
+        if (end > start && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        int p = ExceptionTokenScanner.skipWhitespaceAndEscapes(line, start, end);
+
+        if (current != null) {
+            if (startsWith(line, p, end, FRAME_PREFIX)) {
+                String frame = current.wantsFrameText() ? line.subSequence(p + FRAME_PREFIX.length(), end).toString() : null;
+                current.addFrame(frame);
+                return;
+            }
+            if (startsWith(line, p, end, ELLIPSIS_PREFIX)) {
+                return;
+            }
+            // A cause whose class name the scanner does not recognise, e.g. com.example.Boom, still
+            // belongs to the trace; it opens an unnamed section so its frames are not lost
+            if (startsWith(line, p, end, CAUSED_BY_PREFIX)) {
+                int from = p + CAUSED_BY_PREFIX.length();
+                startSegment(StackTraceBlock.Kind.CAUSED_BY, indentOf(line, start, p),
+                        line, from, ExceptionTokenScanner.find(line, from, end));
+                return;
+            }
+            if (startsWith(line, p, end, SUPPRESSED_PREFIX)) {
+                int from = p + SUPPRESSED_PREFIX.length();
+                startSegment(StackTraceBlock.Kind.SUPPRESSED, indentOf(line, start, p),
+                        line, from, ExceptionTokenScanner.find(line, from, end));
+                return;
+            }
+            if (current.currentFrameCount() == 0 && messageLines < MAX_MESSAGE_LINES
+                    && !ExceptionTokenScanner.contains(line, p, end)) {
+                // continuation of a multi-line exception message
+                messageLines++;
+                return;
+            }
+            emit();
+        }
+
+        if (startsWith(line, p, end, FRAME_PREFIX)) {
+            // stray frame of a trace we did not see the start of
+            return;
+        }
+        long match = ExceptionTokenScanner.find(line, p, end);
+        if (match == ExceptionTokenScanner.NO_MATCH) {
+            return;
+        }
+        current = new StackTraceBlock.Builder(MAX_SEGMENTS, MAX_FRAMES_PER_SEGMENT);
+        messageLines = 0;
+        startSegment(StackTraceBlock.Kind.HEADER, 0, line, p, match);
+    }
+
+    /**
+     * Opens a section for the token found by {@link ExceptionTokenScanner#find}, or an unnamed one
+     * if there is none. This is the only place that materialises strings from console text, so
+     * lines without an exception name pass through the parser without allocating.
+     */
+    private void startSegment(@NotNull StackTraceBlock.Kind kind, int indent,
+                              @NotNull CharSequence line, int lowerBound, long match) {
+        if (match == ExceptionTokenScanner.NO_MATCH) {
+            current.startSegment(kind, indent, "", "");
+            return;
+        }
+        int tokenStart = ExceptionTokenScanner.start(match);
+        int tokenEnd = ExceptionTokenScanner.end(match);
+        int qualifiedStart = ExceptionTokenScanner.qualifiedStart(line, lowerBound, tokenStart);
+        String simpleName = line.subSequence(tokenStart, tokenEnd).toString();
+        String qualifiedName = qualifiedStart == tokenStart
+                ? simpleName
+                : line.subSequence(qualifiedStart, tokenEnd).toString();
+        current.startSegment(kind, indent, simpleName, qualifiedName);
+    }
+
+    private void emit() {
+        StackTraceBlock block = current.build();
+        current = null;
+        consumer.accept(block);
+    }
+
+    private static int indexOf(@NotNull CharSequence text, char c, int limit) {
+        for (int i = 0; i < limit; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static int lastIndexOf(@NotNull CharSequence text, char c, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Counts only whitespace, so a color code in front of "Caused by:" does not read as nesting
+    private static int indentOf(@NotNull CharSequence line, int start, int end) {
+        int indent = 0;
+        for (int i = start; i < end; i++) {
+            if (Character.isWhitespace(line.charAt(i))) {
+                indent++;
+            }
+        }
+        return indent;
+    }
+
+    private static boolean startsWith(@NotNull CharSequence line, int start, int end, @NotNull String prefix) {
+        int length = prefix.length();
+        if (end - start < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
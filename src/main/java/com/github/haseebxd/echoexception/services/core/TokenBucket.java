@@ -0,0 +1,68 @@
+package com.github.haseebxd.echoexception.services.core;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code ratePerSecond}. Refill is computed lazily from the elapsed time on every call, so an
+ * idle bucket costs nothing. Tokens may stand for events or, as in {@link ScanBudget}, for
+ * characters.
+ */
+final class TokenBucket {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private double capacity;
+    private double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double ratePerSecond, double capacity, long nowNanos) {
+        this.lastRefillNanos = nowNanos;
+        configure(ratePerSecond, capacity);
+        this.tokens = this.capacity;
+    }
+
+    synchronized void configure(double ratePerSecond, double capacity) {
+        this.capacity = Math.max(1d, capacity);
+        this.refillPerNano = Math.max(0d, ratePerSecond) / NANOS_PER_SECOND;
+        this.tokens = Math.min(tokens, this.capacity);
+    }
+
+    synchronized boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1d) {
+            tokens -= 1d;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes {@code amount} tokens unconditionally, letting the bucket go into debt down to
+     * {@code -capacity}. Used for budgets that are charged after the work has been done.
+     */
+    synchronized void consume(long nowNanos, double amount) {
+        refill(nowNanos);
+        tokens = Math.max(-capacity, tokens - amount);
+    }
+
+    synchronized boolean hasTokens(long nowNanos) {
+        refill(nowNanos);
+        return tokens > 0d;
+    }
+
+    /**
+     * Whether the bucket has refilled completely, i.e. demand has stayed below the refill rate
+     * for at least {@code capacity / rate} seconds.
+     */
+    synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
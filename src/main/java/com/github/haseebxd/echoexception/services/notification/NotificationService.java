@@ -1,9 +1,9 @@
 package com.github.haseebxd.echoexception.services.notification;
 
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
 import com.github.haseebxd.echoexception.services.settings.SoundSettings;
-import com.github.haseebxd.echoexception.sound.GameSoundType;
 import com.github.haseebxd.echoexception.sound.voices.VoicePack;
-import com.github.haseebxd.echoexception.sound.voices.VoicePackFactory;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationGroup;
 import com.intellij.notification.NotificationGroupManager;
@@ -26,21 +26,49 @@ public class NotificationService {
      * Shows a notification for the detected exception.
      *
      * @param project the current project
-     * @param exceptionClass the exception class that was detected
+     * @param exceptionType the exception type that was detected
      */
     public static void showExceptionNotification(@Nullable Project project,
-                                                 @NotNull Class<? extends Throwable> exceptionClass) {
+                                                 @NotNull ExceptionType exceptionType) {
         try {
             if (!SoundSettings.getInstance().isNotificationEnabled()) {
                 LOG.debug("Notifications are disabled in settings");
                 return;
             }
 
-            String message = buildNotificationMessage(exceptionClass);
+            String message = buildNotificationMessage(exceptionType);
             showNotification(project, message);
 
         } catch (Exception e) {
-            LOG.error("Failed to show exception notification for: " + exceptionClass.getSimpleName(), e);
+            LOG.error("Failed to show exception notification for: " + exceptionType.simpleName(), e);
+        }
+    }
+
+    /**
+     * Shows a single notification summarising an exception storm.
+     *
+     * @param project the current project
+     * @param exceptionType the exception type that was repeated
+     * @param occurrences how many times it was printed during the storm
+     * @param durationMillis how long the storm lasted
+     */
+    public static void showStormNotification(@Nullable Project project,
+                                             @NotNull ExceptionType exceptionType,
+                                             int occurrences,
+                                             long durationMillis) {
+        try {
+            if (!SoundSettings.getInstance().isNotificationEnabled()) {
+                LOG.debug("Notifications are disabled in settings");
+                return;
+            }
+
+            long seconds = Math.max(1, Math.round(durationMillis / 1000d));
+            String message = occurrences + " × " + exceptionType.simpleName() + " in " + seconds + " s<br>"
+                    + buildNotificationMessage(exceptionType);
+            showNotification(project, "Exception storm", message);
+
+        } catch (Exception e) {
+            LOG.error("Failed to show storm notification for: " + exceptionType.simpleName(), e);
         }
     }
 
@@ -48,8 +76,12 @@ public class NotificationService {
      * Shows IntelliJ notification balloon.
      */
     private static void showNotification(@Nullable Project project, @NotNull String message) {
+        showNotification(project, "Exception detected", message);
+    }
+
+    private static void showNotification(@Nullable Project project, @NotNull String title, @NotNull String message) {
         Notification notification = NOTIFICATION_GROUP.createNotification(
-                "Exception detected",
+                title,
                 message,
                 NotificationType.WARNING
         );
@@ -63,19 +95,18 @@ public class NotificationService {
      * Builds the notification message using the configured voice pack.
      */
     @NotNull
-    private static String buildNotificationMessage(@NotNull Class<? extends Throwable> exceptionClass) {
-        GameSoundType type = SoundSettings.getInstance().getSoundType();
-        VoicePack pack = VoicePackFactory.getVoicePack(type);
+    private static String buildNotificationMessage(@NotNull ExceptionType exceptionType) {
+        VoicePack pack = VoicePackRegistry.getInstance()
+                .getOrDefault(SoundSettings.getInstance().getSoundPackId())
+                .pack();
 
-        if (pack != null) {
-            String line = pack.getNotificationForException(exceptionClass);
-            if (line != null && !line.isEmpty()) {
-                return line;
-            }
+        String line = pack.getNotificationForException(exceptionType);
+        if (line != null && !line.isEmpty()) {
+            return line;
         }
 
         // Fallback message
-        return "An exception occurred: " + exceptionClass.getSimpleName();
+        return "An exception occurred: " + exceptionType.simpleName();
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.github.haseebxd.echoexception.services.settings;
 
-import com.github.haseebxd.echoexception.sound.GameSoundType;
+import com.github.haseebxd.echoexception.services.core.ConsoleScanPolicy;
+import com.github.haseebxd.echoexception.services.core.ExceptionRouting;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.Service;
@@ -18,13 +20,33 @@ import org.jetbrains.annotations.NotNull;
         storages = {@Storage("EchoExceptionSoundSettings.xml")}
 )
 public final class SoundSettings implements PersistentStateComponent<SoundSettings.State> {
+    public static final int DEFAULT_STORM_THRESHOLD_PER_PROCESS = 5;
+    public static final int DEFAULT_STORM_THRESHOLD_GLOBAL = 20;
+    public static final long DEFAULT_SCAN_BUDGET_CHARS_PER_SECOND = 8_000_000;
+    public static final int DEFAULT_PCM_CACHE_BUDGET_MB = 16;
+    public static final int DEFAULT_MAX_POLYPHONY = 4;
+    public static final int DEFAULT_TYPE_COOLDOWN_MS = 6_000;
+    public static final int DEFAULT_PACK_COOLDOWN_MS = 1_500;
+
     private State state = new State();
 
     public static class State {
         private boolean soundEnabled = true;
         private boolean notificationEnabled = true;
         private int volume = 50;
-        private GameSoundType soundType = GameSoundType.SATORU_GOJO;
+        // Id of the selected voice pack; the name is kept from when this was an enum
+        private String soundType = VoicePackRegistry.DEFAULT_PACK_ID;
+        private int stormThresholdPerProcess = DEFAULT_STORM_THRESHOLD_PER_PROCESS;
+        private int stormThresholdGlobal = DEFAULT_STORM_THRESHOLD_GLOBAL;
+        private ConsoleScanPolicy stdoutScanPolicy = ConsoleScanPolicy.PREFILTER;
+        private ConsoleScanPolicy stderrScanPolicy = ConsoleScanPolicy.FULL;
+        private ConsoleScanPolicy systemScanPolicy = ConsoleScanPolicy.SKIP;
+        private long scanBudgetCharsPerSecond = DEFAULT_SCAN_BUDGET_CHARS_PER_SECOND;
+        private ExceptionRouting exceptionRouting = ExceptionRouting.ROOT_CAUSE;
+        private int pcmCacheBudgetMb = DEFAULT_PCM_CACHE_BUDGET_MB;
+        private int maxPolyphony = DEFAULT_MAX_POLYPHONY;
+        private int typeCooldownMs = DEFAULT_TYPE_COOLDOWN_MS;
+        private int packCooldownMs = DEFAULT_PACK_COOLDOWN_MS;
 
         public boolean isSoundEnabled() {
             return soundEnabled;
@@ -42,11 +64,11 @@ public final class SoundSettings implements PersistentStateComponent<SoundSettin
             this.volume = volume;
         }
 
-        public GameSoundType getSoundType() {
+        public String getSoundType() {
             return soundType;
         }
 
-        public void setSoundType(GameSoundType soundType) {
+        public void setSoundType(String soundType) {
             this.soundType = soundType;
         }
 
@@ -57,6 +79,94 @@ public final class SoundSettings implements PersistentStateComponent<SoundSettin
         public void setNotificationEnabled(boolean notificationEnabled) {
             this.notificationEnabled = notificationEnabled;
         }
+
+        public int getStormThresholdPerProcess() {
+            return stormThresholdPerProcess;
+        }
+
+        public void setStormThresholdPerProcess(int stormThresholdPerProcess) {
+            this.stormThresholdPerProcess = stormThresholdPerProcess;
+        }
+
+        public int getStormThresholdGlobal() {
+            return stormThresholdGlobal;
+        }
+
+        public void setStormThresholdGlobal(int stormThresholdGlobal) {
+            this.stormThresholdGlobal = stormThresholdGlobal;
+        }
+
+        public ConsoleScanPolicy getStdoutScanPolicy() {
+            return stdoutScanPolicy;
+        }
+
+        public void setStdoutScanPolicy(ConsoleScanPolicy stdoutScanPolicy) {
+            this.stdoutScanPolicy = stdoutScanPolicy;
+        }
+
+        public ConsoleScanPolicy getStderrScanPolicy() {
+            return stderrScanPolicy;
+        }
+
+        public void setStderrScanPolicy(ConsoleScanPolicy stderrScanPolicy) {
+            this.stderrScanPolicy = stderrScanPolicy;
+        }
+
+        public ConsoleScanPolicy getSystemScanPolicy() {
+            return systemScanPolicy;
+        }
+
+        public void setSystemScanPolicy(ConsoleScanPolicy systemScanPolicy) {
+            this.systemScanPolicy = systemScanPolicy;
+        }
+
+        public long getScanBudgetCharsPerSecond() {
+            return scanBudgetCharsPerSecond;
+        }
+
+        public void setScanBudgetCharsPerSecond(long scanBudgetCharsPerSecond) {
+            this.scanBudgetCharsPerSecond = scanBudgetCharsPerSecond;
+        }
+
+        public ExceptionRouting getExceptionRouting() {
+            return exceptionRouting;
+        }
+
+        public void setExceptionRouting(ExceptionRouting exceptionRouting) {
+            this.exceptionRouting = exceptionRouting;
+        }
+
+        public int getPcmCacheBudgetMb() {
+            return pcmCacheBudgetMb;
+        }
+
+        public void setPcmCacheBudgetMb(int pcmCacheBudgetMb) {
+            this.pcmCacheBudgetMb = pcmCacheBudgetMb;
+        }
+
+        public int getMaxPolyphony() {
+            return maxPolyphony;
+        }
+
+        public void setMaxPolyphony(int maxPolyphony) {
+            this.maxPolyphony = maxPolyphony;
+        }
+
+        public int getTypeCooldownMs() {
+            return typeCooldownMs;
+        }
+
+        public void setTypeCooldownMs(int typeCooldownMs) {
+            this.typeCooldownMs = typeCooldownMs;
+        }
+
+        public int getPackCooldownMs() {
+            return packCooldownMs;
+        }
+
+        public void setPackCooldownMs(int packCooldownMs) {
+            this.packCooldownMs = packCooldownMs;
+        }
     }
 
     @Override
@@ -85,12 +195,16 @@ public final class SoundSettings implements PersistentStateComponent<SoundSettin
         state.setVolume(volume);
     }
 
-    public GameSoundType getSoundType() {
+    /**
+     * Id of the selected voice pack; look it up with {@link VoicePackRegistry#getOrDefault}, as the
+     * plugin that provided it may have been removed.
+     */
+    public String getSoundPackId() {
         return state.getSoundType();
     }
 
-    public void setSoundType(GameSoundType soundType) {
-        state.setSoundType(soundType);
+    public void setSoundPackId(String soundPackId) {
+        state.setSoundType(soundPackId);
     }
 
     public static SoundSettings getInstance() {
@@ -104,4 +218,117 @@ public final class SoundSettings implements PersistentStateComponent<SoundSettin
     public void setNotificationEnabled(boolean notificationEnabled) {
         state.setNotificationEnabled(notificationEnabled);
     }
+
+    /**
+     * Exceptions per second a single process may report before it is treated as an exception storm.
+     */
+    public int getStormThresholdPerProcess() {
+        return state.getStormThresholdPerProcess();
+    }
+
+    public void setStormThresholdPerProcess(int stormThresholdPerProcess) {
+        state.setStormThresholdPerProcess(stormThresholdPerProcess);
+    }
+
+    /**
+     * Exceptions per second all processes together may report before storm mode kicks in.
+     */
+    public int getStormThresholdGlobal() {
+        return state.getStormThresholdGlobal();
+    }
+
+    public void setStormThresholdGlobal(int stormThresholdGlobal) {
+        state.setStormThresholdGlobal(stormThresholdGlobal);
+    }
+
+    public ConsoleScanPolicy getStdoutScanPolicy() {
+        return state.getStdoutScanPolicy();
+    }
+
+    public void setStdoutScanPolicy(ConsoleScanPolicy stdoutScanPolicy) {
+        state.setStdoutScanPolicy(stdoutScanPolicy);
+    }
+
+    public ConsoleScanPolicy getStderrScanPolicy() {
+        return state.getStderrScanPolicy();
+    }
+
+    public void setStderrScanPolicy(ConsoleScanPolicy stderrScanPolicy) {
+        state.setStderrScanPolicy(stderrScanPolicy);
+    }
+
+    /**
+     * Policy for IDE-generated text such as the command line and exit code messages.
+     */
+    public ConsoleScanPolicy getSystemScanPolicy() {
+        return state.getSystemScanPolicy();
+    }
+
+    public void setSystemScanPolicy(ConsoleScanPolicy systemScanPolicy) {
+        state.setSystemScanPolicy(systemScanPolicy);
+    }
+
+    /**
+     * Characters per second of one process's output that are fully parsed before scanning
+     * falls back to sampling.
+     */
+    public long getScanBudgetCharsPerSecond() {
+        return state.getScanBudgetCharsPerSecond();
+    }
+
+    public void setScanBudgetCharsPerSecond(long scanBudgetCharsPerSecond) {
+        state.setScanBudgetCharsPerSecond(scanBudgetCharsPerSecond);
+    }
+
+    public ExceptionRouting getExceptionRouting() {
+        return state.getExceptionRouting();
+    }
+
+    public void setExceptionRouting(ExceptionRouting exceptionRouting) {
+        state.setExceptionRouting(exceptionRouting);
+    }
+
+    /**
+     * Megabytes of decoded voice-pack audio kept in memory between plays.
+     */
+    public int getPcmCacheBudgetMb() {
+        return state.getPcmCacheBudgetMb();
+    }
+
+    public void setPcmCacheBudgetMb(int pcmCacheBudgetMb) {
+        state.setPcmCacheBudgetMb(pcmCacheBudgetMb);
+    }
+
+    /**
+     * How many voice clips may play over each other before lower-priority ones are cut off.
+     */
+    public int getMaxPolyphony() {
+        return state.getMaxPolyphony();
+    }
+
+    public void setMaxPolyphony(int maxPolyphony) {
+        state.setMaxPolyphony(maxPolyphony);
+    }
+
+    /**
+     * Milliseconds before the same exception type may play its sound again.
+     */
+    public int getTypeCooldownMs() {
+        return state.getTypeCooldownMs();
+    }
+
+    public void setTypeCooldownMs(int typeCooldownMs) {
+        state.setTypeCooldownMs(typeCooldownMs);
+    }
+
+    /**
+     * Minimum milliseconds between two sounds of one voice pack; a more severe exception skips it.
+     */
+    public int getPackCooldownMs() {
+        return state.getPackCooldownMs();
+    }
+
+    public void setPackCooldownMs(int packCooldownMs) {
+        state.setPackCooldownMs(packCooldownMs);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * Where {@link AudioOutputEngine} sends its mix. {@link JavaSoundBackend} plays it on the sound
+ * card; {@link NullAudioBackend} consumes it in real time without any audio device, so the whole
+ * sound path can run and be measured on headless hosts and in tests.
+ * <p>
+ * Selected with the {@code echoexception.audio.backend} system property: {@code javasound}
+ * (the default) or {@code null}.
+ */
+interface AudioBackend {
+
+    String BACKEND_PROPERTY = "echoexception.audio.backend";
+
+    /**
+     * Opens an output in {@code format} with room for {@code bufferBytes} of not yet played audio.
+     *
+     * @param onStop called, on any thread, once output stopped by {@link Output#stop()} has played out
+     */
+    @NotNull
+    Output open(@NotNull AudioFormat format, int bufferBytes, @NotNull Runnable onStop)
+            throws LineUnavailableException;
+
+    /**
+     * An open output, used only by the render thread apart from the stop callback.
+     */
+    interface Output {
+
+        void start();
+
+        /**
+         * Writes a block, blocking while the output buffer is full.
+         */
+        void write(byte[] data, int offset, int length);
+
+        /**
+         * Frames played since the output was opened.
+         */
+        long framePosition();
+
+        /**
+         * Frames written but not played yet.
+         */
+        int bufferedFrames();
+
+        void stop();
+
+        void close();
+    }
+
+    @NotNull
+    static AudioBackend fromSystemProperty() {
+        String name = System.getProperty(BACKEND_PROPERTY, "javasound");
+        return "null".equals(name) ? new NullAudioBackend(false) : new JavaSoundBackend();
+    }
+}
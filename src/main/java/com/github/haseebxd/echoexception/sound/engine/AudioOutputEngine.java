@@ -0,0 +1,389 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The one audio output of the plugin: a single line of an {@link AudioBackend} in {@link #FORMAT},
+ * fed by a dedicated render thread.
+ * <p>
+ * The line is opened lazily by the first play and then reused, so a play costs a queue offer
+ * instead of a {@code Clip} allocation and a native line open. The render thread mixes all
+ * playing clips with a {@link SoftwareMixer} and writes the result to the line in small blocks;
+ * the blocking {@code write} paces it. After {@link #IDLE_CLOSE_MS} without anything to play the
+ * line is closed again, so an idle IDE holds no native audio resources and a long debugging
+ * session never accumulates lines. The engine is an application service: when the application or
+ * the plugin is disposed, the render thread finishes, closes the line and fails the clips it had.
+ * <p>
+ * {@link #play} never blocks. Volume is applied in software, as one gain per voice that combines
+ * the clip's loudness correction with the volume setting, so every mixer behaves the same whether
+ * or not its line has a gain control. New clips join the mix at the next block, stealing a voice from a
+ * lower-priority clip when the polyphony limit is reached; when more than {@link #MAX_PENDING}
+ * plays are waiting to be picked up the newest is dropped.
+ * <p>
+ * Each play returns a future that completes once the clip has actually been heard, not merely
+ * written: a clip that ends while others keep playing completes when the line's frame position
+ * passes its last frame, and when the mix runs dry the render thread waits out the buffered audio
+ * and stops the line, whose stop notification completes the rest. Futures complete on the render
+ * thread or the Java Sound event thread, so dependent stages must stay cheap or use the
+ * {@code *Async} variants.
+ */
+@Service(Service.Level.APP)
+public final class AudioOutputEngine implements Disposable {
+    private static final Logger LOG = Logger.getInstance(AudioOutputEngine.class);
+
+    /**
+     * Format of the output line and of every {@link DecodedClip}: 44.1 kHz signed 16-bit mono.
+     */
+    public static final AudioFormat FORMAT = new AudioFormat(44_100f, 16, 1, true, false);
+
+    // 10 ms per write keeps the latency of a new play low without waking the thread too often
+    static final int BLOCK_FRAMES = 441;
+    private static final int LINE_BUFFER_FRAMES = BLOCK_FRAMES * 8;
+    static final long IDLE_CLOSE_MS = 30_000;
+    static final int MAX_PENDING = 8;
+    // Fallback for mixers that never deliver the STOP event
+    private static final long STOP_EVENT_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    // A write blocks for at most the line buffer, so the render thread stops well within this
+    private static final long DISPOSE_JOIN_MS = 1_000;
+
+    private final AudioBackend backend;
+    private final SoftwareMixer<Playback> mixer;
+    private final Queue<Playback> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    // Highest priority whose outranked voices must be cut off before the next block
+    private final AtomicReference<VoicePriority> preemptRequest = new AtomicReference<>();
+
+    // Clips whose last frame is written but maybe not yet heard; also drained by the line listener
+    private final Queue<Playback> draining = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread renderThread;
+    private volatile boolean parked;
+    private volatile boolean disposed;
+    private volatile int maxVoices;
+
+    // Only touched by the render thread
+    private AudioBackend.Output line;
+    private boolean lineRunning;
+    private long framesWritten;
+    private long lastActiveNanos;
+    private final List<Playback> starting = new ArrayList<>();
+
+    public AudioOutputEngine() {
+        this(SoundSettings.getInstance().getMaxPolyphony(), AudioBackend.fromSystemProperty());
+    }
+
+    AudioOutputEngine(int maxVoices, @NotNull AudioBackend backend) {
+        this.backend = backend;
+        this.maxVoices = maxVoices;
+        this.mixer = new SoftwareMixer<>(maxVoices, new SoftwareMixer.Listener<>() {
+            @Override
+            public void finished(@NotNull Playback playback) {
+                // the block being mixed is written right after this callback
+                playback.endFrame = framesWritten + BLOCK_FRAMES;
+                draining.add(playback);
+            }
+
+            @Override
+            public void stolen(@NotNull Playback playback) {
+                playback.complete(PlaybackResult.Status.PREEMPTED);
+            }
+        });
+    }
+
+    public static AudioOutputEngine getInstance() {
+        return ApplicationManager.getApplication().getService(AudioOutputEngine.class);
+    }
+
+    /**
+     * Sets how many clips may play at once; takes effect with the next play.
+     */
+    public void setMaxVoices(int maxVoices) {
+        this.maxVoices = maxVoices;
+    }
+
+    /**
+     * Queues a clip for playback at {@code volume} (0-100, see {@link Loudness#volumeGain}) and
+     * returns immediately.
+     *
+     * @param decodeNanos time the caller spent obtaining {@code clip}, reported in the result
+     * @return a future completed when the clip has been heard, cut off, dropped or has failed
+     */
+    @NotNull
+    public CompletableFuture<PlaybackResult> play(@NotNull DecodedClip clip, int volume,
+                                                  @NotNull VoicePriority priority, long decodeNanos) {
+        float gain = clip.normalizationGain() * Loudness.volumeGain(volume);
+        Playback playback = new Playback(clip.resourcePath(), clip.openStream(), gain, priority, decodeNanos);
+        if (disposed) {
+            playback.complete(PlaybackResult.Status.DROPPED);
+            return playback.result;
+        }
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("EchoException: Output queue full, dropped " + clip.resourcePath());
+            }
+            playback.complete(PlaybackResult.Status.DROPPED);
+            return playback.result;
+        }
+        pending.offer(playback);
+        ensureStarted();
+        if (parked) {
+            LockSupport.unpark(renderThread);
+        }
+        return playback.result;
+    }
+
+    /**
+     * Cuts off every playing clip that {@code priority} outranks, at the next block. Clips already
+     * queued by {@link #play} are not affected.
+     */
+    public void preemptBelow(@NotNull VoicePriority priority) {
+        preemptRequest.accumulateAndGet(priority, (current, requested) ->
+                current == null || requested.outranks(current) ? requested : current);
+    }
+
+    /**
+     * Stops the render thread and waits briefly for it to close the line.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        Thread thread = renderThread;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(DISPOSE_JOIN_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            LOG.warn("EchoException: Audio renderer did not stop within " + DISPOSE_JOIN_MS + " ms");
+        }
+    }
+
+    private void ensureStarted() {
+        if (started.get() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(this::renderLoop, "EchoException Audio Renderer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        renderThread = thread;
+        thread.start();
+    }
+
+    private void renderLoop() {
+        byte[] block = new byte[BLOCK_FRAMES * FORMAT.getFrameSize()];
+        while (!disposed) {
+            try {
+                startPendingVoices();
+                if (mixer.isIdle()) {
+                    if (draining.isEmpty()) {
+                        waitForWork();
+                    } else {
+                        stopWhenDrained();
+                    }
+                    continue;
+                }
+                AudioBackend.Output output = openLine();
+                mixer.mix(block);
+                output.write(block, 0, block.length);
+                framesWritten += BLOCK_FRAMES;
+                lastActiveNanos = System.nanoTime();
+                markStarted(lastActiveNanos);
+                completeHeard(output.framePosition());
+            } catch (Exception e) {
+                LOG.warn("EchoException: Audio output failed", e);
+                failAll();
+                closeLine();
+            }
+        }
+        failAll();
+        Playback playback;
+        while ((playback = pending.poll()) != null) {
+            playback.complete(PlaybackResult.Status.DROPPED);
+        }
+        closeLine();
+    }
+
+    private void startPendingVoices() {
+        VoicePriority preempt = preemptRequest.getAndSet(null);
+        if (preempt != null) {
+            mixer.stopOutranked(preempt);
+        }
+        Playback playback;
+        while ((playback = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            playback.pickedUpNanos = System.nanoTime();
+            mixer.setMaxVoices(maxVoices);
+            if (!mixer.add(playback.samples, playback.gain, playback.priority, playback)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("EchoException: All " + mixer.getMaxVoices() + " voices busy, skipped " + playback.resourcePath);
+                }
+                playback.complete(PlaybackResult.Status.DROPPED);
+                continue;
+            }
+            starting.add(playback);
+        }
+    }
+
+    private void markStarted(long nowNanos) {
+        for (Playback playback : starting) {
+            playback.startedNanos = nowNanos;
+        }
+        starting.clear();
+    }
+
+    private void completeHeard(long linePosition) {
+        Playback head;
+        while ((head = draining.peek()) != null && head.endFrame <= linePosition) {
+            if (draining.remove(head)) {
+                head.complete(PlaybackResult.Status.PLAYED);
+            }
+        }
+    }
+
+    // Waits until the buffered tail of the mix has played, then stops the line; its STOP event
+    // completes the clips still draining. A new play arriving meanwhile ends either wait early.
+    private void stopWhenDrained() {
+        AudioBackend.Output output = line;
+        if (output == null) {
+            failAll();
+            return;
+        }
+        if (lineRunning) {
+            park((long) (output.bufferedFrames() * 1_000_000_000L / FORMAT.getFrameRate()));
+            if (pending.isEmpty() && mixer.isIdle()) {
+                output.stop();
+                lineRunning = false;
+            }
+            return;
+        }
+        park(STOP_EVENT_TIMEOUT_NANOS);
+        if (pending.isEmpty()) {
+            completeHeard(Long.MAX_VALUE);
+        }
+    }
+
+    private void waitForWork() {
+        long parkNanos = Long.MAX_VALUE;
+        if (line != null) {
+            long idleNanos = System.nanoTime() - lastActiveNanos;
+            long closeAfterNanos = TimeUnit.MILLISECONDS.toNanos(IDLE_CLOSE_MS);
+            if (idleNanos >= closeAfterNanos) {
+                closeLine();
+            } else {
+                parkNanos = closeAfterNanos - idleNanos;
+            }
+        }
+        park(parkNanos);
+    }
+
+    private void park(long nanos) {
+        parked = true;
+        // re-check after announcing, so a play racing with us cannot be missed
+        if (pending.isEmpty()) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        parked = false;
+        Thread.interrupted();
+    }
+
+    private void failAll() {
+        for (Playback playback : mixer.clear()) {
+            playback.complete(PlaybackResult.Status.FAILED);
+        }
+        Playback playback;
+        while ((playback = draining.poll()) != null) {
+            playback.complete(PlaybackResult.Status.FAILED);
+        }
+        starting.clear();
+    }
+
+    @NotNull
+    private AudioBackend.Output openLine() throws LineUnavailableException {
+        if (line == null) {
+            long start = System.nanoTime();
+            line = backend.open(FORMAT, LINE_BUFFER_FRAMES * FORMAT.getFrameSize(), () -> {
+                completeHeard(Long.MAX_VALUE);
+                if (parked) {
+                    LockSupport.unpark(renderThread);
+                }
+            });
+            framesWritten = 0;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("EchoException: Opened audio line in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            }
+        }
+        if (!lineRunning) {
+            line.start();
+            lineRunning = true;
+        }
+        return line;
+    }
+
+    private void closeLine() {
+        if (line == null) {
+            return;
+        }
+        try {
+            line.close();
+        } catch (Exception e) {
+            LOG.debug("EchoException: Failed to close audio line", e);
+        }
+        line = null;
+        lineRunning = false;
+        LOG.debug("EchoException: Closed audio line");
+    }
+
+    private static final class Playback {
+        final String resourcePath;
+        final SampleStream samples;
+        final float gain;
+        final VoicePriority priority;
+        final long decodeNanos;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<PlaybackResult> result = new CompletableFuture<>();
+
+        // Written by the render thread before the playback is handed to the line listener
+        volatile long pickedUpNanos;
+        volatile long startedNanos;
+        volatile long endFrame;
+
+        Playback(@NotNull String resourcePath, @NotNull SampleStream samples, float gain,
+                 @NotNull VoicePriority priority, long decodeNanos) {
+            this.resourcePath = resourcePath;
+            this.samples = samples;
+            this.gain = gain;
+            this.priority = priority;
+            this.decodeNanos = decodeNanos;
+        }
+
+        void complete(@NotNull PlaybackResult.Status status) {
+            long queueWait = pickedUpNanos == 0 ? 0 : pickedUpNanos - enqueuedNanos;
+            long start = startedNanos == 0 ? 0 : startedNanos - pickedUpNanos;
+            result.complete(new PlaybackResult(status, resourcePath, queueWait, decodeNanos, start, startedNanos));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+/**
+ * How the samples of a {@link DecodedClip} are stored. Both decode to {@link AudioOutputEngine#FORMAT}.
+ */
+public enum ClipEncoding {
+
+    /** Signed 16-bit little-endian samples, played straight from the buffer. */
+    PCM_16,
+
+    /** 4-bit IMA ADPCM in {@link ImaAdpcm#BLOCK_BYTES}-byte blocks, decoded one block at a time while playing. */
+    IMA_ADPCM
+}
@@ -0,0 +1,48 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioFormat;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A voice-pack clip ready to play in {@code format}: either signed 16-bit little-endian PCM, or
+ * IMA ADPCM that is decoded block by block while it plays.
+ * <p>
+ * The backing buffer is shared by every play of the clip and must not be modified; each play
+ * reads it through its own {@link #openStream() stream}. {@code normalizationGain} is the
+ * {@link Loudness#normalizationGain loudness correction} measured once when the clip was packed
+ * or decoded.
+ */
+public record DecodedClip(@NotNull String resourcePath, @NotNull AudioFormat format, @NotNull ByteBuffer data,
+                          @NotNull ClipEncoding encoding, int frameCount, float normalizationGain) {
+
+    /**
+     * Wraps decoded PCM, measuring its loudness on the way.
+     */
+    public DecodedClip(@NotNull String resourcePath, @NotNull AudioFormat format, @NotNull ByteBuffer pcm) {
+        this(resourcePath, format, pcm, ClipEncoding.PCM_16, pcm.capacity() / format.getFrameSize(),
+                Loudness.normalizationGain(SampleStream.pcm(pcm.duplicate().clear().order(ByteOrder.LITTLE_ENDIAN))));
+    }
+
+    @NotNull
+    SampleStream openStream() {
+        ByteBuffer view = data.asReadOnlyBuffer().clear().order(ByteOrder.LITTLE_ENDIAN);
+        return switch (encoding) {
+            case PCM_16 -> SampleStream.pcm(view);
+            case IMA_ADPCM -> new ImaAdpcm.Decoder(view, frameCount);
+        };
+    }
+
+    /**
+     * Bytes of memory the clip occupies, which for an encoded clip is less than its decoded size.
+     */
+    public int sizeInBytes() {
+        return data.capacity();
+    }
+
+    public long durationMillis() {
+        return (long) (frameCount * 1000L / format.getFrameRate());
+    }
+}
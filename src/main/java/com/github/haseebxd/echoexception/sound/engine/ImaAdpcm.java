@@ -0,0 +1,169 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * IMA ADPCM codec for mono 16-bit voice clips, a quarter of the size of the PCM they encode.
+ * <p>
+ * Samples are grouped into self-contained blocks of {@link #BLOCK_BYTES} bytes: the first sample
+ * verbatim (16-bit little-endian) and the step index, then {@link #SAMPLES_PER_BLOCK}{@code - 1}
+ * samples as 4-bit codes, low nibble first. The last block of a clip may be shorter. The
+ * {@code packVoiceSprites} Gradle task compiles this class to encode ADPCM sprites.
+ */
+final class ImaAdpcm {
+
+    static final int BLOCK_BYTES = 256;
+    private static final int HEADER_BYTES = 4;
+    static final int SAMPLES_PER_BLOCK = 1 + (BLOCK_BYTES - HEADER_BYTES) * 2;
+
+    private static final int[] INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8};
+
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+            15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private ImaAdpcm() {
+    }
+
+    static int encodedSize(int sampleCount) {
+        int fullBlocks = sampleCount / SAMPLES_PER_BLOCK;
+        int rest = sampleCount % SAMPLES_PER_BLOCK;
+        return fullBlocks * BLOCK_BYTES + (rest == 0 ? 0 : HEADER_BYTES + rest / 2);
+    }
+
+    static byte[] encode(short[] samples) {
+        byte[] out = new byte[encodedSize(samples.length)];
+        int index = 0;
+        int position = 0;
+        for (int blockStart = 0; blockStart < samples.length; blockStart += SAMPLES_PER_BLOCK) {
+            int predictor = samples[blockStart];
+            out[position++] = (byte) predictor;
+            out[position++] = (byte) (predictor >> 8);
+            out[position++] = (byte) index;
+            out[position++] = 0;
+
+            int blockEnd = Math.min(blockStart + SAMPLES_PER_BLOCK, samples.length);
+            for (int i = blockStart + 1; i < blockEnd; i += 2) {
+                int low = encodeSample(samples[i], predictor, index);
+                predictor = decodeSample(low, predictor, index);
+                index = nextIndex(index, low);
+                int high = 0;
+                if (i + 1 < blockEnd) {
+                    high = encodeSample(samples[i + 1], predictor, index);
+                    predictor = decodeSample(high, predictor, index);
+                    index = nextIndex(index, high);
+                }
+                out[position++] = (byte) (low | high << 4);
+            }
+        }
+        return out;
+    }
+
+    private static int encodeSample(int sample, int predictor, int index) {
+        int step = STEP_TABLE[index];
+        int diff = sample - predictor;
+        int code = 0;
+        if (diff < 0) {
+            code = 8;
+            diff = -diff;
+        }
+        if (diff >= step) {
+            code |= 4;
+            diff -= step;
+        }
+        if (diff >= step >> 1) {
+            code |= 2;
+            diff -= step >> 1;
+        }
+        if (diff >= step >> 2) {
+            code |= 1;
+        }
+        return code;
+    }
+
+    private static int decodeSample(int code, int predictor, int index) {
+        int step = STEP_TABLE[index];
+        int delta = step >> 3;
+        if ((code & 4) != 0) {
+            delta += step;
+        }
+        if ((code & 2) != 0) {
+            delta += step >> 1;
+        }
+        if ((code & 1) != 0) {
+            delta += step >> 2;
+        }
+        int next = (code & 8) != 0 ? predictor - delta : predictor + delta;
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, next));
+    }
+
+    private static int nextIndex(int index, int code) {
+        return Math.max(0, Math.min(STEP_TABLE.length - 1, index + INDEX_TABLE[code & 7]));
+    }
+
+    /**
+     * Streams one clip, decoding a single block whenever the previous one is used up.
+     */
+    static final class Decoder implements SampleStream {
+        private final ByteBuffer data;
+        private final int sampleCount;
+        private final short[] block = new short[SAMPLES_PER_BLOCK];
+        private int blockLength;
+        private int blockPosition;
+        private int decoded;
+
+        Decoder(@NotNull ByteBuffer data, int sampleCount) {
+            this.data = data;
+            this.sampleCount = sampleCount;
+        }
+
+        @Override
+        public int read(short[] target, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (blockPosition == blockLength && !decodeNextBlock()) {
+                    break;
+                }
+                int count = Math.min(length - read, blockLength - blockPosition);
+                System.arraycopy(block, blockPosition, target, offset + read, count);
+                blockPosition += count;
+                read += count;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean hasRemaining() {
+            return blockPosition < blockLength || decoded < sampleCount;
+        }
+
+        private boolean decodeNextBlock() {
+            if (decoded >= sampleCount) {
+                return false;
+            }
+            int base = (decoded / SAMPLES_PER_BLOCK) * BLOCK_BYTES;
+            int predictor = (short) ((data.get(base) & 0xFF) | data.get(base + 1) << 8);
+            int index = data.get(base + 2) & 0xFF;
+            int count = Math.min(SAMPLES_PER_BLOCK, sampleCount - decoded);
+
+            block[0] = (short) predictor;
+            for (int i = 1; i < count; i++) {
+                int packed = data.get(base + HEADER_BYTES + (i - 1) / 2);
+                int code = (i & 1) == 1 ? packed & 0x0F : (packed >> 4) & 0x0F;
+                predictor = decodeSample(code, predictor, index);
+                index = nextIndex(index, code);
+                block[i] = (short) predictor;
+            }
+            blockLength = count;
+            blockPosition = 0;
+            decoded += count;
+            return true;
+        }
+    }
+}
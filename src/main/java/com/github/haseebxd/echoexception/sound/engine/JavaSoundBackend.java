@@ -0,0 +1,62 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays the mix on the default Java Sound mixer through one {@link SourceDataLine}.
+ */
+final class JavaSoundBackend implements AudioBackend {
+
+    @NotNull
+    @Override
+    public Output open(@NotNull AudioFormat format, int bufferBytes, @NotNull Runnable onStop)
+            throws LineUnavailableException {
+        SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        line.addLineListener(event -> {
+            if (event.getType() == LineEvent.Type.STOP) {
+                onStop.run();
+            }
+        });
+        line.open(format, bufferBytes);
+        int frameSize = format.getFrameSize();
+        return new Output() {
+            @Override
+            public void start() {
+                line.start();
+            }
+
+            @Override
+            public void write(byte[] data, int offset, int length) {
+                line.write(data, offset, length);
+            }
+
+            @Override
+            public long framePosition() {
+                return line.getLongFramePosition();
+            }
+
+            @Override
+            public int bufferedFrames() {
+                return (line.getBufferSize() - line.available()) / frameSize;
+            }
+
+            @Override
+            public void stop() {
+                line.stop();
+            }
+
+            @Override
+            public void close() {
+                line.stop();
+                line.flush();
+                line.close();
+            }
+        };
+    }
+}
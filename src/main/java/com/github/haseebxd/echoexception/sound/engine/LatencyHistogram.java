@@ -0,0 +1,104 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in microseconds, with four buckets per power of two, so any
+ * reported percentile is at most 25% above the true value.
+ * <p>
+ * Recording is a couple of atomic increments and safe from any thread.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Records the time from {@code sinceNanos}, a {@link System#nanoTime()} such as the moment an
+     * exception was detected, until the first frame of {@code result} reached the output. Results
+     * that never reached it are not recorded.
+     */
+    public void recordFirstFrame(@NotNull PlaybackResult result, long sinceNanos) {
+        if (result.firstFrameAtNanos() != 0) {
+            record(result.firstFrameAtNanos() - sinceNanos);
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns an upper bound for the {@code percentile} (0-100) of the recorded latencies in
+     * microseconds, or 0 if nothing was recorded.
+     */
+    public long percentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        maxMicros.set(0);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = octave - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "n=" + count() + ", p50≤" + percentileMicros(50) + "µs, p90≤" + percentileMicros(90)
+                + "µs, p99≤" + percentileMicros(99) + "µs, max " + maxMicros() + "µs";
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Loudness normalization of clips and the volume curve of the settings slider. Both end up as one
+ * linear gain per voice that the {@link SoftwareMixer} multiplies into the samples.
+ * <p>
+ * A clip's loudness is the RMS level of its 50 ms windows, ignoring windows below
+ * {@link #SILENCE_GATE_DB} so that pauses and fade-outs do not make a clip look quieter than it
+ * sounds. The {@code packVoiceSprites} Gradle task compiles this class to measure the gain it
+ * stores with every clip.
+ */
+final class Loudness {
+
+    /** RMS level every clip is brought to, in dB relative to full scale. */
+    static final float TARGET_DB = -20f;
+    static final float SILENCE_GATE_DB = -50f;
+    /** Quiet clips are boosted by at most this much, so noise in a near-silent clip stays quiet. */
+    static final float MAX_BOOST_DB = 12f;
+    /** Loudness range the volume slider spans, from just above 0 up to 100; 0 itself is silent. */
+    static final float VOLUME_RANGE_DB = 30f;
+
+    private static final int WINDOW_FRAMES = 2_205;
+
+    private Loudness() {
+    }
+
+    /**
+     * Returns the gain that brings {@code samples} to {@link #TARGET_DB} without pushing its peak
+     * past full scale, or 1 for a silent clip.
+     */
+    static float normalizationGain(@NotNull SampleStream samples) {
+        short[] window = new short[WINDOW_FRAMES];
+        double gatedSum = 0;
+        long gatedCount = 0;
+        int peak = 0;
+        double gate = Short.MAX_VALUE * Math.pow(10, SILENCE_GATE_DB / 20);
+        double gateSquare = gate * gate;
+        int read;
+        while ((read = samples.read(window, 0, WINDOW_FRAMES)) > 0) {
+            double sum = 0;
+            for (int i = 0; i < read; i++) {
+                int sample = window[i];
+                sum += (double) sample * sample;
+                peak = Math.max(peak, Math.abs(sample));
+            }
+            if (sum / read >= gateSquare) {
+                gatedSum += sum;
+                gatedCount += read;
+            }
+        }
+        if (gatedCount == 0) {
+            return 1f;
+        }
+        double rmsDb = 20 * Math.log10(Math.sqrt(gatedSum / gatedCount) / Short.MAX_VALUE);
+        double gainDb = Math.min(TARGET_DB - rmsDb, MAX_BOOST_DB);
+        double gain = Math.pow(10, gainDb / 20);
+        return (float) Math.min(gain, (double) Short.MAX_VALUE / peak);
+    }
+
+    /**
+     * Maps the 0-100 volume setting to a linear gain on a decibel taper, so equal slider steps
+     * sound like equal changes in loudness.
+     */
+    static float volumeGain(int volume) {
+        if (volume <= 0) {
+            return 0f;
+        }
+        int clamped = Math.min(volume, 100);
+        return (float) Math.pow(10, -VOLUME_RANGE_DB * (100 - clamped) / 100f / 20);
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A backend without an audio device. Its output consumes frames at the format's frame rate and
+ * blocks writes on a full buffer exactly like a sound card would, so the render thread keeps its
+ * real timing; the audio itself is discarded, or kept for inspection when recording.
+ * <p>
+ * A recording backend keeps up to {@link #MAX_RECORDED_FRAMES} of 16-bit mono samples together
+ * with the time each block was written, which is what tests and latency measurements look at.
+ */
+final class NullAudioBackend implements AudioBackend {
+
+    static final int MAX_RECORDED_FRAMES = 60 * 44_100;
+
+    private final boolean recording;
+    private final List<Block> blocks = new ArrayList<>();
+    private short[] samples = new short[0];
+    private int recordedFrames;
+
+    /**
+     * One write to the output.
+     *
+     * @param writtenAtNanos {@link System#nanoTime()} when the block was handed to the output
+     * @param firstFrame     index of the block's first frame in the recording
+     */
+    record Block(long writtenAtNanos, int firstFrame, int frames) {
+    }
+
+    NullAudioBackend(boolean recording) {
+        this.recording = recording;
+    }
+
+    @NotNull
+    @Override
+    public Output open(@NotNull AudioFormat format, int bufferBytes, @NotNull Runnable onStop) {
+        return new NullOutput(format, bufferBytes / format.getFrameSize(), onStop);
+    }
+
+    @NotNull
+    synchronized List<Block> blocks() {
+        return List.copyOf(blocks);
+    }
+
+    @NotNull
+    synchronized short[] samples() {
+        return Arrays.copyOf(samples, recordedFrames);
+    }
+
+    synchronized void clearRecording() {
+        blocks.clear();
+        recordedFrames = 0;
+    }
+
+    private synchronized void record(long nowNanos, byte[] data, int offset, int length) {
+        int frames = Math.min(length / 2, MAX_RECORDED_FRAMES - recordedFrames);
+        if (frames <= 0) {
+            return;
+        }
+        if (samples.length < recordedFrames + frames) {
+            samples = Arrays.copyOf(samples, Math.min(MAX_RECORDED_FRAMES, Math.max(samples.length * 2, recordedFrames + frames)));
+        }
+        for (int i = 0; i < frames; i++) {
+            int at = offset + i * 2;
+            samples[recordedFrames + i] = (short) ((data[at] & 0xFF) | data[at + 1] << 8);
+        }
+        blocks.add(new Block(nowNanos, recordedFrames, frames));
+        recordedFrames += frames;
+    }
+
+    private final class NullOutput implements Output {
+        private final double framesPerNano;
+        private final int frameSize;
+        private final int bufferFrames;
+        private final Runnable onStop;
+
+        private long written;
+        private long playedBeforeStart;
+        private long startedNanos;
+        private boolean running;
+
+        NullOutput(@NotNull AudioFormat format, int bufferFrames, @NotNull Runnable onStop) {
+            this.framesPerNano = format.getFrameRate() / TimeUnit.SECONDS.toNanos(1);
+            this.frameSize = format.getFrameSize();
+            this.bufferFrames = bufferFrames;
+            this.onStop = onStop;
+        }
+
+        @Override
+        public void start() {
+            if (!running) {
+                startedNanos = System.nanoTime();
+                running = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            int frames = length / frameSize;
+            if (running && framePosition() == written) {
+                // underrun: like a real device, play resumes from the new data instead of catching up
+                playedBeforeStart = written;
+                startedNanos = System.nanoTime();
+            }
+            long overflow;
+            while (running && (overflow = bufferedFrames() + frames - bufferFrames) > 0) {
+                LockSupport.parkNanos((long) (overflow / framesPerNano));
+            }
+            if (recording) {
+                record(System.nanoTime(), data, offset, length);
+            }
+            written += frames;
+        }
+
+        @Override
+        public long framePosition() {
+            if (!running) {
+                return playedBeforeStart;
+            }
+            long played = playedBeforeStart + (long) ((System.nanoTime() - startedNanos) * framesPerNano);
+            return Math.min(played, written);
+        }
+
+        @Override
+        public int bufferedFrames() {
+            return (int) (written - framePosition());
+        }
+
+        @Override
+        public void stop() {
+            if (running) {
+                playedBeforeStart = framePosition();
+                running = false;
+                onStop.run();
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+        }
+    }
+}
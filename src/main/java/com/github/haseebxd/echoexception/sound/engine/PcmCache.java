@@ -0,0 +1,201 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.LowMemoryWatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decoded PCM for voice-pack clips, keyed by resource path, or by URI for the clips of installed
+ * packs.
+ * <p>
+ * The first play of a clip reads and decodes it from the plugin jar; later plays get the cached
+ * {@link DecodedClip} without any I/O. Clips live in direct buffers and are evicted least recently
+ * used first once their total size exceeds the byte budget. The whole cache is dropped when the
+ * IDE reports low memory, after which clips are simply decoded again on demand.
+ * <p>
+ * Packs that ship a {@link VoiceSprite} skip decoding altogether: the first clip requested from
+ * such a pack loads the whole sprite in one read, and every clip of the pack is then served as a
+ * slice of it. Sprites are few and shared by all their clips, so they are kept outside the LRU and
+ * its budget, and dropped with the rest on low memory.
+ * <p>
+ * Decoding and sprite loading happen outside the lock, so a slow jar read never blocks plays of
+ * cached clips. Two threads missing on the same path at once may both decode it; the first result
+ * is kept.
+ */
+public final class PcmCache {
+    private static final Logger LOG = Logger.getInstance(PcmCache.class);
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private final LinkedHashMap<String, DecodedClip> clips = new LinkedHashMap<>(16, 0.75f, true);
+    // Keyed by pack directory; an empty Optional records a pack without a sprite
+    private final Map<String, Optional<VoiceSprite>> sprites = new HashMap<>();
+    private long budgetBytes;
+    private long cachedBytes;
+
+    // LowMemoryWatcher only keeps a weak reference to the watcher, so it has to be held here
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    private final LowMemoryWatcher lowMemoryWatcher;
+
+    PcmCache(long budgetBytes) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+        this.lowMemoryWatcher = LowMemoryWatcher.register(this::clear);
+    }
+
+    private static final class Holder {
+        static final PcmCache INSTANCE =
+                new PcmCache(SoundSettings.getInstance().getPcmCacheBudgetMb() * BYTES_PER_MB);
+    }
+
+    public static PcmCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the decoded clip for {@code resourcePath}, decoding and caching it on a miss.
+     *
+     * @return the clip, or {@code null} if the resource is missing or cannot be decoded
+     */
+    @Nullable
+    public DecodedClip get(@NotNull String resourcePath) {
+        DecodedClip cached = getIfCached(resourcePath);
+        if (cached != null) {
+            return cached;
+        }
+        DecodedClip fromSprite = loadFromSprite(resourcePath);
+        if (fromSprite != null) {
+            return fromSprite;
+        }
+        DecodedClip decoded;
+        try {
+            decoded = PcmDecoder.decode(resourcePath);
+        } catch (IOException | UnsupportedAudioFileException e) {
+            LOG.warn("EchoException: Failed to decode sound resource: " + resourcePath, e);
+            return null;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("EchoException: Decoded " + resourcePath + " (" + decoded.sizeInBytes() + " bytes, "
+                    + decoded.durationMillis() + " ms)");
+        }
+        return put(decoded);
+    }
+
+    /**
+     * Returns the clip if it is available without any I/O, from the cache or a loaded sprite.
+     */
+    @Nullable
+    public synchronized DecodedClip getIfCached(@NotNull String resourcePath) {
+        DecodedClip cached = clips.get(resourcePath);
+        if (cached != null) {
+            return cached;
+        }
+        String packDirectory = VoiceSprite.packDirectoryOf(resourcePath);
+        if (packDirectory == null) {
+            return null;
+        }
+        Optional<VoiceSprite> sprite = sprites.getOrDefault(packDirectory, Optional.empty());
+        return sprite.map(loaded -> loaded.clip(resourcePath)).orElse(null);
+    }
+
+    @Nullable
+    private DecodedClip loadFromSprite(@NotNull String resourcePath) {
+        String packDirectory = VoiceSprite.packDirectoryOf(resourcePath);
+        if (packDirectory == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (sprites.containsKey(packDirectory)) {
+                // already loaded (getIfCached found no such clip in it) or known to be missing
+                return null;
+            }
+        }
+        VoiceSprite sprite = null;
+        try {
+            sprite = VoiceSprite.load(packDirectory);
+        } catch (IOException e) {
+            LOG.warn("EchoException: Failed to load voice sprite for " + packDirectory + ", decoding clips instead", e);
+        }
+        if (sprite != null && LOG.isDebugEnabled()) {
+            LOG.debug("EchoException: Loaded voice sprite for " + packDirectory + " (" + sprite.clipCount() + " clips)");
+        }
+        synchronized (this) {
+            sprites.putIfAbsent(packDirectory, Optional.ofNullable(sprite));
+        }
+        return getIfCached(resourcePath);
+    }
+
+    /**
+     * Sets the cache budget, as {@link SoundSettings#getPcmCacheBudgetMb()}; shrinking it evicts
+     * least recently played clips right away.
+     */
+    public synchronized void setBudgetMb(int budgetMb) {
+        this.budgetBytes = Math.max(0, budgetMb * BYTES_PER_MB);
+        evictToBudget();
+    }
+
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Drops every cached clip whose path starts with {@code pathPrefix}, e.g. those of an installed
+     * pack that changed on disk.
+     */
+    public synchronized void removeClips(@NotNull String pathPrefix) {
+        Iterator<Map.Entry<String, DecodedClip>> entries = clips.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, DecodedClip> entry = entries.next();
+            if (entry.getKey().startsWith(pathPrefix)) {
+                cachedBytes -= entry.getValue().sizeInBytes();
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        if (!clips.isEmpty() && LOG.isDebugEnabled()) {
+            LOG.debug("EchoException: Releasing " + clips.size() + " cached clips (" + cachedBytes + " bytes)");
+        }
+        clips.clear();
+        sprites.clear();
+        cachedBytes = 0;
+    }
+
+    @NotNull
+    private synchronized DecodedClip put(@NotNull DecodedClip decoded) {
+        DecodedClip existing = clips.get(decoded.resourcePath());
+        if (existing != null) {
+            return existing;
+        }
+        // A clip larger than the whole budget is played but not retained
+        if (decoded.sizeInBytes() > budgetBytes) {
+            return decoded;
+        }
+        clips.put(decoded.resourcePath(), decoded);
+        cachedBytes += decoded.sizeInBytes();
+        evictToBudget();
+        return decoded;
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, DecodedClip>> eldestFirst = clips.entrySet().iterator();
+        while (cachedBytes > budgetBytes && eldestFirst.hasNext()) {
+            cachedBytes -= eldestFirst.next().getValue().sizeInBytes();
+            eldestFirst.remove();
+        }
+    }
+}
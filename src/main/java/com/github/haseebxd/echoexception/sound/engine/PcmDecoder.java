@@ -0,0 +1,135 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a WAV resource from the plugin jar, or a clip of an installed pack given by its URI, and
+ * decodes it into a direct buffer in
+ * {@link AudioOutputEngine#FORMAT}, the only sample layout the rest of the engine deals with.
+ * Clips recorded at another rate or channel count are down-mixed and linearly resampled once
+ * here by the {@link Resampler}, so the output line can stay open in one format for every pack.
+ */
+final class PcmDecoder {
+
+    private static final int READ_CHUNK = 16 * 1024;
+
+    private PcmDecoder() {
+    }
+
+    /**
+     * Whether {@code clipPath} is the URI of a clip in an installed pack rather than a path inside
+     * the plugin jar; jar paths never contain a scheme.
+     */
+    static boolean isExternal(@NotNull String clipPath) {
+        return clipPath.indexOf(':') > 0;
+    }
+
+    @Nullable
+    static URL findResource(@NotNull String resourcePath) {
+        URL url = PcmDecoder.class.getClassLoader().getResource(resourcePath);
+        if (url == null) {
+            url = PcmDecoder.class.getResource("/" + resourcePath);
+        }
+        if (url == null) {
+            ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+            if (contextLoader != null) {
+                url = contextLoader.getResource(resourcePath);
+            }
+        }
+        return url;
+    }
+
+    @NotNull
+    static DecodedClip decode(@NotNull String resourcePath) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream source = open(resourcePath);
+             AudioInputStream pcm = toPcm16(source)) {
+            AudioFormat format = pcm.getFormat();
+            long frames = pcm.getFrameLength();
+            int expected = frames == AudioSystem.NOT_SPECIFIED ? READ_CHUNK : (int) (frames * format.getFrameSize());
+            ByteBuffer buffer = readFully(pcm, expected);
+            return new DecodedClip(resourcePath, AudioOutputEngine.FORMAT, toEngineFormat(buffer, format));
+        }
+    }
+
+    @NotNull
+    private static AudioInputStream open(@NotNull String resourcePath) throws IOException, UnsupportedAudioFileException {
+        if (isExternal(resourcePath)) {
+            // A folder or an open zip file system; AudioSystem needs mark/reset to detect the format
+            Path clip = Path.of(URI.create(resourcePath));
+            InputStream in = new BufferedInputStream(Files.newInputStream(clip));
+            try {
+                return AudioSystem.getAudioInputStream(in);
+            } catch (IOException | UnsupportedAudioFileException | RuntimeException e) {
+                in.close();
+                throw e;
+            }
+        }
+        URL url = findResource(resourcePath);
+        if (url == null) {
+            throw new IOException("Sound resource not found: " + resourcePath);
+        }
+        return AudioSystem.getAudioInputStream(url);
+    }
+
+    @NotNull
+    private static AudioInputStream toPcm16(@NotNull AudioInputStream source) {
+        AudioFormat format = source.getFormat();
+        if (isPcm16(format)) {
+            return source;
+        }
+        AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        return AudioSystem.getAudioInputStream(target, source);
+    }
+
+    static boolean isPcm16(@NotNull AudioFormat format) {
+        return AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding())
+                && format.getSampleSizeInBits() == 16
+                && !format.isBigEndian();
+    }
+
+    @NotNull
+    static ByteBuffer toEngineFormat(@NotNull ByteBuffer pcm, @NotNull AudioFormat format) {
+        return Resampler.toMono(pcm, format.getChannels(), format.getSampleRate(),
+                AudioOutputEngine.FORMAT.getSampleRate());
+    }
+
+    // Reads straight into the direct buffer through a small transfer array, so the decoded clip
+    // never exists as a heap byte[] of its full size
+    @NotNull
+    private static ByteBuffer readFully(@NotNull InputStream in, int expectedBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(expectedBytes, 1));
+        byte[] chunk = new byte[READ_CHUNK];
+        int read;
+        while ((read = in.read(chunk)) > 0) {
+            if (buffer.remaining() < read) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + read));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            buffer.put(chunk, 0, read);
+        }
+        buffer.flip();
+        if (buffer.limit() == buffer.capacity()) {
+            return buffer;
+        }
+        ByteBuffer exact = ByteBuffer.allocateDirect(buffer.limit());
+        exact.put(buffer).flip();
+        return exact;
+    }
+}
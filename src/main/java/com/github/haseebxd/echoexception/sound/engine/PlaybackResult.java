@@ -0,0 +1,54 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one sound request, with the time spent in each stage before the first frame reached
+ * the output line. Stages that were never reached report zero.
+ *
+ * @param queueWaitNanos    from handing the clip to the engine until the render thread picked it up
+ * @param decodeNanos       cache lookup, plus reading and decoding the clip on a cache miss
+ * @param startNanos        from joining the mix until the line accepted the first block of the clip
+ * @param firstFrameAtNanos {@link System#nanoTime()} at which the line accepted that block, for
+ *                          measuring latency from an earlier event such as the exception itself
+ */
+public record PlaybackResult(@NotNull Status status, @Nullable String resourcePath,
+                             long queueWaitNanos, long decodeNanos, long startNanos, long firstFrameAtNanos) {
+
+    public enum Status {
+        /** The clip played to the end. */
+        PLAYED,
+        /** The clip was cut off to free its voice for a higher-priority one. */
+        PREEMPTED,
+        /** The engine was too busy to take the clip. */
+        DROPPED,
+        /** Nothing was played by design: sound is off, the request was debounced or has no clip. */
+        SKIPPED,
+        /** The clip could not be loaded or the output line failed. */
+        FAILED
+    }
+
+    @NotNull
+    public static PlaybackResult skipped(@Nullable String resourcePath) {
+        return new PlaybackResult(Status.SKIPPED, resourcePath, 0, 0, 0, 0);
+    }
+
+    @NotNull
+    public static PlaybackResult failed(@Nullable String resourcePath, long decodeNanos) {
+        return new PlaybackResult(Status.FAILED, resourcePath, 0, decodeNanos, 0, 0);
+    }
+
+    public boolean isAudible() {
+        return status == Status.PLAYED || status == Status.PREEMPTED;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + resourcePath + " (queue " + TimeUnit.NANOSECONDS.toMicros(queueWaitNanos)
+                + "µs, decode " + TimeUnit.NANOSECONDS.toMicros(decodeNanos)
+                + "µs, start " + TimeUnit.NANOSECONDS.toMicros(startNanos) + "µs)";
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Down-mixing and linear resampling of 16-bit PCM to the mono rate of the engine. Used by
+ * {@link PcmDecoder} for clips decoded at runtime and compiled into the {@code packVoiceSprites}
+ * Gradle task for the clips it packs, so both end up with the same samples.
+ */
+final class Resampler {
+
+    private Resampler() {
+    }
+
+    /**
+     * Converts interleaved 16-bit little-endian {@code pcm} with {@code channels} channels at
+     * {@code sourceRate} to mono at {@code targetRate}.
+     *
+     * @return {@code pcm} itself if it is mono at {@code targetRate} already, otherwise a new
+     * little-endian direct buffer
+     */
+    @NotNull
+    static ByteBuffer toMono(@NotNull ByteBuffer pcm, int channels, float sourceRate, float targetRate) {
+        if (channels == 1 && sourceRate == targetRate) {
+            return pcm;
+        }
+        pcm.order(ByteOrder.LITTLE_ENDIAN);
+        int sourceFrames = pcm.limit() / (2 * channels);
+        double step = sourceRate / (double) targetRate;
+        int targetFrames = (int) Math.ceil(sourceFrames / step);
+        ByteBuffer out = ByteBuffer.allocateDirect(targetFrames * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < targetFrames; i++) {
+            double position = i * step;
+            int index = Math.min((int) position, sourceFrames - 1);
+            int next = Math.min(index + 1, sourceFrames - 1);
+            double fraction = position - index;
+            float a = monoSample(pcm, index, channels);
+            float b = monoSample(pcm, next, channels);
+            out.putShort((short) Math.round(a + (b - a) * fraction));
+        }
+        return out.flip();
+    }
+
+    private static float monoSample(@NotNull ByteBuffer pcm, int frame, int channels) {
+        int offset = frame * channels * 2;
+        float sum = 0;
+        for (int c = 0; c < channels; c++) {
+            sum += pcm.getShort(offset + c * 2);
+        }
+        return sum / channels;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Sequential reader of one play of a clip as 16-bit mono samples. The mixer pulls from it one
+ * output block at a time, so an encoded clip never needs to be decoded in full.
+ */
+interface SampleStream {
+
+    /**
+     * Reads up to {@code length} samples into {@code target}.
+     *
+     * @return the number of samples read; less than {@code length} only at the end of the clip
+     */
+    int read(short[] target, int offset, int length);
+
+    boolean hasRemaining();
+
+    @NotNull
+    static SampleStream pcm(@NotNull ByteBuffer littleEndianPcm) {
+        ShortBuffer samples = littleEndianPcm.asShortBuffer();
+        return new SampleStream() {
+            @Override
+            public int read(short[] target, int offset, int length) {
+                int count = Math.min(length, samples.remaining());
+                samples.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public boolean hasRemaining() {
+                return samples.hasRemaining();
+            }
+        };
+    }
+}
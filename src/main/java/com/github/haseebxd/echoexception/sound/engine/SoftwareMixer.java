@@ -0,0 +1,199 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sums up to {@link #getMaxVoices()} clip streams into one block of 16-bit mono PCM for the output line.
+ * <p>
+ * When every voice is busy, a new clip replaces the lowest-priority voice if it outranks it (the
+ * oldest such voice if there are several); otherwise the new clip is rejected, so a burst of equal
+ * severity never cuts off a clip halfway through. Summed samples go through a peak limiter that
+ * scales the block down instead of hard-clipping it, and recovers gradually once the mix is quiet
+ * again.
+ * <p>
+ * Every voice carries a tag of type {@code T}, handed back through {@link Listener} when the voice
+ * ends. Not thread-safe: only the render thread uses it.
+ */
+final class SoftwareMixer<T> {
+
+    interface Listener<T> {
+        /** The voice played its last frame into a mix block. */
+        void finished(@NotNull T tag);
+
+        /** The voice was cut off by {@link #add} for a higher-priority clip. */
+        void stolen(@NotNull T tag);
+    }
+
+    static final int MAX_VOICES_LIMIT = 16;
+    private static final float LIMITER_RELEASE_PER_BLOCK = 1.05f;
+
+    @SuppressWarnings("unchecked")
+    private final Voice<T>[] voices = (Voice<T>[]) new Voice<?>[MAX_VOICES_LIMIT];
+    private final Listener<T> listener;
+    private int maxVoices;
+    private int activeVoices;
+    private long startSequence;
+    private float limiterGain = 1f;
+    private int[] accumulator = new int[0];
+    private short[] voiceBlock = new short[0];
+
+    SoftwareMixer(int maxVoices, @NotNull Listener<T> listener) {
+        this.listener = listener;
+        setMaxVoices(maxVoices);
+    }
+
+    int getMaxVoices() {
+        return maxVoices;
+    }
+
+    /**
+     * Changes the polyphony limit. Voices above a lowered limit finish playing; they are only
+     * not replaced.
+     */
+    void setMaxVoices(int maxVoices) {
+        this.maxVoices = Math.max(1, Math.min(MAX_VOICES_LIMIT, maxVoices));
+    }
+
+    int getActiveVoices() {
+        return activeVoices;
+    }
+
+    boolean isIdle() {
+        return activeVoices == 0;
+    }
+
+    /**
+     * Starts a voice for {@code samples}, stealing a lower-priority voice if the limit is reached.
+     *
+     * @return {@code false} if every voice outranks or equals {@code priority} and the clip was not started
+     */
+    boolean add(@NotNull SampleStream samples, float gain, @NotNull VoicePriority priority, @NotNull T tag) {
+        int slot = -1;
+        if (activeVoices < maxVoices) {
+            slot = freeSlot();
+        }
+        if (slot < 0) {
+            slot = stealableSlot(priority);
+            if (slot < 0) {
+                return false;
+            }
+            T stolen = voices[slot].tag;
+            voices[slot] = null;
+            activeVoices--;
+            listener.stolen(stolen);
+        }
+        voices[slot] = new Voice<>(samples, gain, priority, startSequence++, tag);
+        activeVoices++;
+        return true;
+    }
+
+    /**
+     * Cuts off every voice that {@code priority} outranks, reporting each as stolen.
+     */
+    void stopOutranked(@NotNull VoicePriority priority) {
+        for (int i = 0; i < voices.length; i++) {
+            Voice<T> voice = voices[i];
+            if (voice != null && priority.outranks(voice.priority)) {
+                voices[i] = null;
+                activeVoices--;
+                listener.stolen(voice.tag);
+            }
+        }
+    }
+
+    /**
+     * Drops every voice and returns their tags.
+     */
+    @NotNull
+    List<T> clear() {
+        List<T> tags = new ArrayList<>(activeVoices);
+        for (int i = 0; i < voices.length; i++) {
+            if (voices[i] != null) {
+                tags.add(voices[i].tag);
+                voices[i] = null;
+            }
+        }
+        activeVoices = 0;
+        return tags;
+    }
+
+    /**
+     * Mixes the next {@code out.length / 2} frames of all active voices into {@code out} as
+     * little-endian 16-bit samples. Voices that run out are released; the rest of the block is
+     * silence.
+     */
+    void mix(byte[] out) {
+        int frames = out.length / 2;
+        if (accumulator.length < frames) {
+            accumulator = new int[frames];
+        }
+        if (voiceBlock.length < frames) {
+            voiceBlock = new short[frames];
+        }
+        int[] sum = accumulator;
+        Arrays.fill(sum, 0, frames, 0);
+
+        for (int v = 0; v < voices.length; v++) {
+            Voice<T> voice = voices[v];
+            if (voice == null) {
+                continue;
+            }
+            SampleStream source = voice.samples;
+            int count = source.read(voiceBlock, 0, frames);
+            for (int i = 0; i < count; i++) {
+                sum[i] += (int) (voiceBlock[i] * voice.gain);
+            }
+            if (!source.hasRemaining()) {
+                voices[v] = null;
+                activeVoices--;
+                listener.finished(voice.tag);
+            }
+        }
+
+        int peak = 0;
+        for (int i = 0; i < frames; i++) {
+            peak = Math.max(peak, Math.abs(sum[i]));
+        }
+        float target = peak > Short.MAX_VALUE ? (float) Short.MAX_VALUE / peak : 1f;
+        limiterGain = target < limiterGain ? target : Math.min(target, limiterGain * LIMITER_RELEASE_PER_BLOCK);
+
+        for (int i = 0; i < frames; i++) {
+            int sample = limiterGain == 1f ? sum[i] : (int) (sum[i] * limiterGain);
+            sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < voices.length; i++) {
+            if (voices[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int stealableSlot(@NotNull VoicePriority incoming) {
+        int victim = -1;
+        for (int i = 0; i < voices.length; i++) {
+            Voice<T> voice = voices[i];
+            if (voice == null || !incoming.outranks(voice.priority)) {
+                continue;
+            }
+            if (victim < 0 || voice.priority.compareTo(voices[victim].priority) < 0
+                    || (voice.priority == voices[victim].priority && voice.sequence < voices[victim].sequence)) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private record Voice<T>(@NotNull SampleStream samples, float gain, @NotNull VoicePriority priority, long sequence,
+                            @NotNull T tag) {
+    }
+}
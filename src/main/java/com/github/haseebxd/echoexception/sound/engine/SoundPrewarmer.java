@@ -0,0 +1,154 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
+import com.github.haseebxd.echoexception.sound.voices.VoicePack;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sound.sampled.AudioSystem;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pays the first-play costs of a voice pack in the background: initializing {@link AudioSystem}
+ * and enumerating its mixers, then decoding the pack's clips into the {@link PcmCache}.
+ * <p>
+ * The startup warm-up is timed on the shared scheduled executor, so it never competes with the
+ * project opening, but the decoding itself runs on a pooled executor of its own, bounded to one
+ * task. Only one warm-up runs at a time: asking for another pack cancels the current one, which
+ * stops between clips. Clips stop being decoded once the next one would push older clips out of
+ * the cache. A finished warm-up is forgotten, so asking again, e.g. after the cache was cleared
+ * on low memory, decodes whatever is missing.
+ */
+public final class SoundPrewarmer {
+    private static final Logger LOG = Logger.getInstance(SoundPrewarmer.class);
+    private static final SoundPrewarmer INSTANCE = new SoundPrewarmer();
+
+    static final long STARTUP_DELAY_MS = 5_000;
+
+    private final ExecutorService executor =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("EchoException Prewarmer", 1);
+
+    private Future<?> current;
+    private String currentPackId;
+    // Identifies the latest warm-up, so a superseded one neither starts nor clears its successor
+    private long generation;
+    private volatile boolean audioSystemReady;
+
+    private SoundPrewarmer() {
+    }
+
+    public static SoundPrewarmer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules a warm-up of the selected pack once the IDE has settled after startup.
+     */
+    public void prewarmAfterStartup() {
+        SoundSettings settings = SoundSettings.getInstance();
+        if (settings.isSoundEnabled()) {
+            schedule(settings.getSoundPackId(), STARTUP_DELAY_MS);
+        }
+    }
+
+    /**
+     * Warms the pack with {@code packId} right away, cancelling a warm-up of another pack. Does
+     * nothing if that pack is already warm or warming.
+     */
+    public void prewarm(@NotNull String packId) {
+        schedule(packId, 0);
+    }
+
+    public synchronized void cancel() {
+        generation++;
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+        currentPackId = null;
+    }
+
+    private synchronized void schedule(@NotNull String packId, long delayMs) {
+        if (packId.equals(currentPackId)) {
+            return;
+        }
+        cancel();
+        currentPackId = packId;
+        long warmup = generation;
+        current = delayMs == 0
+                ? executor.submit(() -> warm(packId, warmup))
+                : AppExecutorUtil.getAppScheduledExecutorService()
+                        .schedule(() -> start(packId, warmup), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Only the delay is spent on the scheduled executor, which is meant for short timer tasks
+    private synchronized void start(@NotNull String packId, long warmup) {
+        if (warmup == generation) {
+            current = executor.submit(() -> warm(packId, warmup));
+        }
+    }
+
+    private synchronized void finished(long warmup) {
+        if (warmup == generation) {
+            current = null;
+            currentPackId = null;
+        }
+    }
+
+    private void warm(@NotNull String packId, long warmup) {
+        try {
+            warm(packId);
+        } finally {
+            finished(warmup);
+        }
+    }
+
+    private void warm(@NotNull String packId) {
+        long start = System.nanoTime();
+        warmAudioSystem();
+
+        VoicePackRegistry.Entry entry = VoicePackRegistry.getInstance().getOrDefault(packId);
+        VoicePack pack = entry.pack();
+        PcmCache cache = PcmCache.getInstance();
+        int decoded = 0;
+        long largestClip = 0;
+        for (String resource : pack.getSoundResources()) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOG.debug("EchoException: Prewarm of " + entry + " cancelled");
+                return;
+            }
+            if (cache.getIfCached(resource) != null) {
+                continue;
+            }
+            if (cache.getCachedBytes() + largestClip > cache.getBudgetBytes()) {
+                break;
+            }
+            DecodedClip clip = cache.get(resource);
+            if (clip != null) {
+                decoded++;
+                largestClip = Math.max(largestClip, clip.sizeInBytes());
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("EchoException: Prewarmed " + entry + " (" + decoded + " clips decoded) in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+    }
+
+    // Loads the sound providers and enumerates mixers without opening (and so holding) a line
+    private void warmAudioSystem() {
+        if (audioSystemReady) {
+            return;
+        }
+        try {
+            AudioSystem.getSourceDataLine(AudioOutputEngine.FORMAT);
+        } catch (Exception e) {
+            LOG.debug("EchoException: No audio output available for prewarming", e);
+        }
+        audioSystemReady = true;
+    }
+}
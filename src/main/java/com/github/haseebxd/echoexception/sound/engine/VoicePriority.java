@@ -0,0 +1,28 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * How important a clip is when the mixer has to choose which voices keep playing. Later
+ * constants outrank earlier ones.
+ */
+public enum VoicePriority {
+
+    EXCEPTION,
+
+    /**
+     * {@link Error}s such as {@code StackOverflowError} usually end the program, so they win over
+     * any exception that is still being announced.
+     */
+    ERROR;
+
+    @NotNull
+    public static VoicePriority of(@NotNull ExceptionType exceptionType) {
+        return exceptionType.isError() ? ERROR : EXCEPTION;
+    }
+
+    public boolean outranks(@NotNull VoicePriority other) {
+        return compareTo(other) > 0;
+    }
+}
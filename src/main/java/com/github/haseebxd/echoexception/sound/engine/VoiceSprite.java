@@ -0,0 +1,175 @@
+package com.github.haseebxd.echoexception.sound.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All clips of one voice pack packed into a single resource, {@code voice-packs/<pack>.sprite},
+ * generated at build time by the {@code packVoiceSprites} Gradle task.
+ * <p>
+ * Layout (header big-endian, samples little-endian):
+ * <pre>
+ * int    magic "EXSP"
+ * int    version
+ * int    sample rate, short channels, short bits per sample   -- always {@link AudioOutputEngine#FORMAT}
+ * short  encoding, the ordinal of a {@link ClipEncoding}
+ * int    clip count
+ * clip count times: short name length, UTF-8 file name, int offset, int length, int frames,
+ *                   float normalization gain   -- offset and length in bytes, relative to the sample data
+ * data   every clip back to back
+ * </pre>
+ * The sprite is memory-mapped when it sits in a directory and read with one bulk read when it sits
+ * in the plugin jar. Every clip is a {@link ByteBuffer#slice(int, int) slice} of that one buffer,
+ * so no clip is ever copied at runtime; PCM sprites are played as they are, ADPCM sprites are
+ * decoded block by block while playing.
+ */
+final class VoiceSprite {
+
+    static final int MAGIC = 0x45585350;
+    static final int VERSION = 3;
+    static final String EXTENSION = ".sprite";
+
+    private final String packDirectory;
+    private final Map<String, DecodedClip> clips;
+
+    private VoiceSprite(@NotNull String packDirectory, @NotNull Map<String, DecodedClip> clips) {
+        this.packDirectory = packDirectory;
+        this.clips = clips;
+    }
+
+    /**
+     * Returns the directory part of a clip's resource path, e.g. {@code voice-packs/valorant-sage/},
+     * or {@code null} if the path has none or is a clip of an installed pack, which has no sprite.
+     */
+    @Nullable
+    static String packDirectoryOf(@NotNull String resourcePath) {
+        if (PcmDecoder.isExternal(resourcePath)) {
+            return null;
+        }
+        int slash = resourcePath.lastIndexOf('/');
+        return slash <= 0 ? null : resourcePath.substring(0, slash + 1);
+    }
+
+    /**
+     * Loads the sprite for {@code packDirectory}.
+     *
+     * @return the sprite, or {@code null} if the pack has none
+     */
+    @Nullable
+    static VoiceSprite load(@NotNull String packDirectory) throws IOException {
+        String resource = packDirectory.substring(0, packDirectory.length() - 1) + EXTENSION;
+        URL url = PcmDecoder.findResource(resource);
+        if (url == null) {
+            return null;
+        }
+        return parse(packDirectory, readFully(url));
+    }
+
+    @Nullable
+    DecodedClip clip(@NotNull String resourcePath) {
+        if (!resourcePath.startsWith(packDirectory)) {
+            return null;
+        }
+        return clips.get(resourcePath);
+    }
+
+    int clipCount() {
+        return clips.size();
+    }
+
+    @NotNull
+    static VoiceSprite parse(@NotNull String packDirectory, @NotNull ByteBuffer sprite) throws IOException {
+        ByteBuffer header = sprite.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a voice sprite: " + packDirectory);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported voice sprite version " + version + ": " + packDirectory);
+        }
+        int sampleRate = header.getInt();
+        int channels = header.getShort();
+        int bits = header.getShort();
+        if (sampleRate != (int) AudioOutputEngine.FORMAT.getSampleRate()
+                || channels != AudioOutputEngine.FORMAT.getChannels()
+                || bits != AudioOutputEngine.FORMAT.getSampleSizeInBits()) {
+            throw new IOException("Voice sprite " + packDirectory + " is not in the engine format");
+        }
+        int encodingOrdinal = header.getShort();
+        if (encodingOrdinal < 0 || encodingOrdinal >= ClipEncoding.values().length) {
+            throw new IOException("Unknown voice sprite encoding " + encodingOrdinal + ": " + packDirectory);
+        }
+        ClipEncoding encoding = ClipEncoding.values()[encodingOrdinal];
+
+        int count = header.getInt();
+        String[] names = new String[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        int[] frames = new int[count];
+        float[] gains = new float[count];
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[header.getShort() & 0xFFFF];
+            header.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            offsets[i] = header.getInt();
+            lengths[i] = header.getInt();
+            frames[i] = header.getInt();
+            gains[i] = header.getFloat();
+        }
+
+        int dataStart = header.position();
+        Map<String, DecodedClip> clips = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (offsets[i] < 0 || lengths[i] < 0 || dataStart + offsets[i] + lengths[i] > sprite.limit()) {
+                throw new IOException("Voice sprite " + packDirectory + " is truncated at " + names[i]);
+            }
+            String path = packDirectory + names[i];
+            ByteBuffer data = sprite.slice(dataStart + offsets[i], lengths[i]).order(ByteOrder.LITTLE_ENDIAN);
+            clips.put(path, new DecodedClip(path, AudioOutputEngine.FORMAT, data, encoding, frames[i], gains[i]));
+        }
+        return new VoiceSprite(packDirectory, clips);
+    }
+
+    @NotNull
+    private static ByteBuffer readFully(@NotNull URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        URLConnection connection = url.openConnection();
+        long size = connection.getContentLengthLong();
+        try (InputStream in = connection.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(in)) {
+            if (size < 0) {
+                return ByteBuffer.wrap(in.readAllBytes());
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            // a jar entry is inflated in chunks, so one logical read takes several channel reads
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            return buffer.flip();
+        }
+    }
+}
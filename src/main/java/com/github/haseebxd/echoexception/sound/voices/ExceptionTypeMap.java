@@ -0,0 +1,85 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up the value for an exception type, falling back along its superclass chain to the
+ * nearest mapped type, so {@code SocketException} finds an {@code IOException} entry.
+ * <p>
+ * Types are matched by name and the chain comes from the {@link ExceptionType}, so a lookup
+ * never needs a loaded class. Keys are fully qualified names; a map may also use simple names,
+ * e.g. for an external pack mapping exceptions that only exist in the user's project and are
+ * printed without a package.
+ * <p>
+ * The answer is memoised per type, so the hot path is a single read of a concurrent map keyed by
+ * the type's name; the chain is only walked the first time a type is seen. Since types are
+ * plain names the cache never keeps a class or class loader alive, and it stops growing after
+ * {@value #MAX_CACHED_TYPES} types, as a process can print any number of distinct names.
+ */
+final class ExceptionTypeMap<V> {
+
+    static final int MAX_CACHED_TYPES = 1_024;
+
+    private final Map<String, V> exact;
+    private final V fallback;
+    private final boolean hasSimpleNames;
+    private final Map<ExceptionType, V> nearest = new ConcurrentHashMap<>();
+
+    private ExceptionTypeMap(@NotNull Map<String, V> exactByName, @NotNull V fallback) {
+        this.exact = Map.copyOf(exactByName);
+        this.fallback = fallback;
+        this.hasSimpleNames = exactByName.keySet().stream().anyMatch(name -> name.indexOf('.') < 0);
+    }
+
+    /**
+     * @param exactByName values for the types with exactly these fully qualified or simple names;
+     *                    must not change afterwards
+     * @param fallback    value for types with no mapped supertype
+     */
+    @NotNull
+    static <V> ExceptionTypeMap<V> ofNames(@NotNull Map<String, V> exactByName, @NotNull V fallback) {
+        return new ExceptionTypeMap<>(exactByName, fallback);
+    }
+
+    @NotNull
+    V get(@NotNull ExceptionType exceptionType) {
+        V value = nearest.get(exceptionType);
+        if (value == null) {
+            value = lookUp(exceptionType);
+            if (nearest.size() < MAX_CACHED_TYPES) {
+                nearest.put(exceptionType, value);
+            }
+        }
+        return value;
+    }
+
+    @NotNull
+    private V lookUp(@NotNull ExceptionType exceptionType) {
+        List<String> lineage = exceptionType.lineage();
+        for (int i = 0; i < lineage.size(); i++) {
+            String name = lineage.get(i);
+            V value = exact.get(name);
+            if (value == null && hasSimpleNames) {
+                value = exact.get(name.substring(name.lastIndexOf('.') + 1));
+            }
+            if (value != null) {
+                return value;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Every value that was mapped explicitly, without the fallback.
+     */
+    @NotNull
+    Collection<V> mappedValues() {
+        return exact.values();
+    }
+}
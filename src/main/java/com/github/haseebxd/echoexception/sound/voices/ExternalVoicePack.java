@@ -0,0 +1,189 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * A voice pack installed by the user, read from a folder or a zip file holding a
+ * {@value #MANIFEST} manifest:
+ * <pre>
+ * id=team-pack
+ * name=Team Pack
+ * default.sound=clips/default.wav
+ * default.notification=Something broke.
+ * sound.java.io.IOException=clips/io.wav
+ * notification.java.io.IOException=The disk says no.
+ * sound.com.example.BillingException=clips/billing.wav
+ * </pre>
+ * Exceptions are named by fully qualified or simple name, so a pack can map the project's own
+ * exceptions, and subclasses of a known mapped type get its clip and line as in the built-in packs.
+ * <p>
+ * Loading reads the manifest and nothing else; for a zip that is one entry found through the
+ * central directory of a zip {@link FileSystem}, which stays open while the pack is installed
+ * (only one pack can have a given zip open at a time). Clips are returned as URIs into the
+ * folder or the zip, and are only read and decoded by the engine when they are first played.
+ */
+final class ExternalVoicePack implements VoicePack, Closeable {
+    static final String MANIFEST = "voice-pack.properties";
+
+    private static final String SOUND_PREFIX = "sound.";
+    private static final String NOTIFICATION_PREFIX = "notification.";
+
+    private final String id;
+    private final String displayName;
+    private final String rootUri;
+    private final String defaultSound;
+    private final ExceptionTypeMap<String> sounds;
+    private final ExceptionTypeMap<String> notifications;
+    @Nullable
+    private final FileSystem zip;
+
+    private ExternalVoicePack(@NotNull String id, @NotNull String displayName, @NotNull String rootUri,
+                              @NotNull String defaultSound, @NotNull ExceptionTypeMap<String> sounds,
+                              @NotNull ExceptionTypeMap<String> notifications, @Nullable FileSystem zip) {
+        this.id = id;
+        this.displayName = displayName;
+        this.rootUri = rootUri;
+        this.defaultSound = defaultSound;
+        this.sounds = sounds;
+        this.notifications = notifications;
+        this.zip = zip;
+    }
+
+    static boolean isPack(@NotNull Path path) {
+        return Files.isDirectory(path)
+                ? Files.isRegularFile(path.resolve(MANIFEST))
+                : path.getFileName().toString().endsWith(".zip");
+    }
+
+    /**
+     * Reads the manifest of the pack in {@code source}, a folder or a zip file.
+     *
+     * @throws IOException if the manifest is missing, unreadable or has no default sound
+     */
+    @NotNull
+    static ExternalVoicePack load(@NotNull Path source) throws IOException {
+        // Opened by URI so that it is registered with the provider, and clip URIs resolve through it
+        FileSystem zip = Files.isDirectory(source)
+                ? null
+                : FileSystems.newFileSystem(URI.create("jar:" + source.toUri()), Map.of());
+        try {
+            Path root = zip == null ? source : zip.getPath("/");
+            Properties manifest = new Properties();
+            try (Reader reader = Files.newBufferedReader(root.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+            return fromManifest(source, root, manifest, zip);
+        } catch (IOException | RuntimeException e) {
+            if (zip != null) {
+                zip.close();
+            }
+            throw e;
+        }
+    }
+
+    @NotNull
+    private static ExternalVoicePack fromManifest(@NotNull Path source, @NotNull Path root,
+                                                  @NotNull Properties manifest, @Nullable FileSystem zip) throws IOException {
+        String fileName = source.getFileName().toString();
+        String id = manifest.getProperty("id", fileName.endsWith(".zip")
+                ? fileName.substring(0, fileName.length() - ".zip".length())
+                : fileName);
+        String displayName = manifest.getProperty("name", id);
+        String defaultSoundPath = manifest.getProperty("default.sound");
+        if (defaultSoundPath == null) {
+            throw new IOException("No default.sound in the manifest of voice pack " + source);
+        }
+        String defaultSound = clipUri(root, defaultSoundPath);
+
+        Map<String, String> soundsByName = new HashMap<>();
+        Map<String, String> notificationsByName = new HashMap<>();
+        for (String key : manifest.stringPropertyNames()) {
+            String value = manifest.getProperty(key);
+            if (key.startsWith(SOUND_PREFIX)) {
+                soundsByName.put(key.substring(SOUND_PREFIX.length()), clipUri(root, value));
+            } else if (key.startsWith(NOTIFICATION_PREFIX)) {
+                notificationsByName.put(key.substring(NOTIFICATION_PREFIX.length()), value);
+            }
+        }
+        String defaultNotification = manifest.getProperty("default.notification", displayName + ": An exception occurred.");
+        return new ExternalVoicePack(id, displayName, root.toUri().toString(), defaultSound,
+                ExceptionTypeMap.ofNames(soundsByName, defaultSound),
+                ExceptionTypeMap.ofNames(notificationsByName, defaultNotification), zip);
+    }
+
+    // Paths are resolved but not checked, so loading never touches the clips themselves
+    @NotNull
+    private static String clipUri(@NotNull Path root, @NotNull String relativePath) throws IOException {
+        Path clip = root.resolve(relativePath).normalize();
+        if (!clip.startsWith(root)) {
+            throw new IOException("Clip " + relativePath + " is outside its voice pack");
+        }
+        return clip.toUri().toString();
+    }
+
+    @NotNull
+    String id() {
+        return id;
+    }
+
+    @NotNull
+    String displayName() {
+        return displayName;
+    }
+
+    /**
+     * Common prefix of this pack's clip URIs.
+     */
+    @NotNull
+    String rootUri() {
+        return rootUri;
+    }
+
+    @Override
+    public String getSoundForException(ExceptionType exceptionType) {
+        return sounds.get(exceptionType);
+    }
+
+    @Override
+    public String getNotificationForException(ExceptionType exceptionType) {
+        return notifications.get(exceptionType);
+    }
+
+    @Override
+    public Collection<String> getSoundResources() {
+        Set<String> clips = new LinkedHashSet<>();
+        clips.add(defaultSound);
+        clips.addAll(sounds.mappedValues());
+        return clips;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (zip != null) {
+            zip.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + rootUri + ")";
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.github.haseebxd.echoexception.sound.engine.PcmCache;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The voice packs the user installed into {@code <config>/echoexception/voice-packs}, each a
+ * folder or a zip file (see {@link ExternalVoicePack}).
+ * <p>
+ * Nothing is read until the registry first asks for the packs. From then on the directory is
+ * watched, and whenever a pack is added, changed or removed all packs are read again, the clips
+ * of the old ones are dropped from the {@link PcmCache}, and the registry is told to rebuild. The
+ * watch service is polled on the shared scheduled executor, so no thread waits on it, and events
+ * arriving within one poll interval cause a single reload. Disposing stops the watch and closes
+ * the packs.
+ */
+final class ExternalVoicePacks implements Disposable {
+    private static final Logger LOG = Logger.getInstance(ExternalVoicePacks.class);
+
+    static final long POLL_INTERVAL_MS = 2_000;
+
+    private final Path directory;
+    private final Runnable onReload;
+    private volatile List<ExternalVoicePack> packs = List.of();
+    @Nullable
+    private volatile WatchService watchService;
+    @Nullable
+    private ScheduledFuture<?> poller;
+
+    ExternalVoicePacks(@NotNull Path directory, @NotNull Runnable onReload) {
+        this.directory = directory;
+        this.onReload = onReload;
+    }
+
+    @NotNull
+    static Path defaultDirectory() {
+        return Path.of(PathManager.getConfigPath(), "echoexception", "voice-packs");
+    }
+
+    /**
+     * Reads the installed packs and starts watching for changes, until this is disposed.
+     */
+    synchronized void start() {
+        packs = loadAll();
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            register(watchService);
+        } catch (IOException e) {
+            LOG.warn("EchoException: Cannot watch " + directory + ", installed voice packs are not reloaded", e);
+            return;
+        }
+        poller = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @NotNull
+    List<ExternalVoicePack> getPacks() {
+        return packs;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (poller != null) {
+            poller.cancel(false);
+            poller = null;
+        }
+        closeQuietly(watchService);
+        watchService = null;
+        packs.forEach(ExternalVoicePacks::closeQuietly);
+        packs = List.of();
+    }
+
+    private void poll() {
+        WatchService watcher = watchService;
+        if (watcher == null) {
+            return;
+        }
+        boolean changed = false;
+        try {
+            WatchKey key;
+            while ((key = watcher.poll()) != null) {
+                changed |= !key.pollEvents().isEmpty();
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            return;
+        }
+        if (changed) {
+            reload();
+        }
+    }
+
+    synchronized void reload() {
+        // The old packs are closed first, since a zip can only be opened once
+        for (ExternalVoicePack pack : packs) {
+            PcmCache.getInstance().removeClips(pack.rootUri());
+            closeQuietly(pack);
+        }
+        packs = loadAll();
+        if (watchService != null) {
+            try {
+                // pack folders may have been added, and a folder's key has to be registered by itself
+                register(watchService);
+            } catch (IOException e) {
+                LOG.warn("EchoException: Cannot watch the voice packs in " + directory, e);
+            }
+        }
+        LOG.info("EchoException: Reloaded installed voice packs: " + packs);
+        onReload.run();
+    }
+
+    @NotNull
+    private List<ExternalVoicePack> loadAll() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<ExternalVoicePack> loaded = new ArrayList<>();
+        try (Stream<Path> children = Files.list(directory).sorted()) {
+            for (Path child : (Iterable<Path>) children::iterator) {
+                if (!ExternalVoicePack.isPack(child)) {
+                    continue;
+                }
+                try {
+                    loaded.add(ExternalVoicePack.load(child));
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("EchoException: Skipping voice pack " + child + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("EchoException: Cannot list voice packs in " + directory, e);
+        }
+        return List.copyOf(loaded);
+    }
+
+    // Watches the directory itself and every folder inside a folder pack; registering a
+    // directory again only returns its existing key
+    private void register(@NotNull WatchService watcher) throws IOException {
+        try (Stream<Path> folders = Files.walk(directory)) {
+            for (Path folder : (Iterable<Path>) folders.filter(Files::isDirectory)::iterator) {
+                folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private static void closeQuietly(@Nullable AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOG.debug("EchoException: Failed to close " + closeable, e);
+        }
+    }
+}
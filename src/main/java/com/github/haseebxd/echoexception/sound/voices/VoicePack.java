@@ -1,10 +1,40 @@
 package com.github.haseebxd.echoexception.sound.voices;
 
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
+
+import java.util.Collection;
+
 public interface VoicePack {
 
-    String getSoundForException(Class<? extends Throwable> exceptionType);
+    /**
+     * Clip for {@code exceptionType}, or for its nearest supertype the pack has a clip for, or the
+     * pack's default clip.
+     */
+    String getSoundForException(ExceptionType exceptionType);
+
+    String getNotificationForException(ExceptionType exceptionType);
+
+    /**
+     * Clip for the exception with this fully qualified or simple name, as printed in a stack trace.
+     */
+    default String getSoundForException(String exceptionName) {
+        return getSoundForException(ExceptionType.named(exceptionName));
+    }
+
+    default String getNotificationForException(String exceptionName) {
+        return getNotificationForException(ExceptionType.named(exceptionName));
+    }
 
-    String getNotificationForException(Class<? extends Throwable> exceptionType);
+    default String getSoundForException(Class<? extends Throwable> exceptionType) {
+        return getSoundForException(ExceptionType.of(exceptionType));
+    }
 
+    default String getNotificationForException(Class<? extends Throwable> exceptionType) {
+        return getNotificationForException(ExceptionType.of(exceptionType));
+    }
 
+    /**
+     * Every clip this pack can play, including the default one; used to prewarm the pack.
+     */
+    Collection<String> getSoundResources();
 }
@@ -0,0 +1,38 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.intellij.openapi.extensions.RequiredElement;
+import com.intellij.serviceContainer.BaseKeyedLazyInstance;
+import com.intellij.util.xmlb.annotations.Attribute;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A voice pack registered through the {@code com.github.haseebxd.echoexception.voicePack}
+ * extension point:
+ * <pre>{@code
+ * <extensions defaultExtensionNs="com.github.haseebxd.echoexception">
+ *     <voicePack id="MY_PACK" displayName="My Pack" implementationClass="com.example.MyVoice"/>
+ * </extensions>
+ * }</pre>
+ * The implementation class needs a public no-argument constructor. It is loaded, through the
+ * contributing plugin's class loader, only when the pack is first used, and then kept.
+ */
+public final class VoicePackBean extends BaseKeyedLazyInstance<VoicePack> {
+
+    /** Stored in the settings to remember the selected pack, so it must not change between versions. */
+    @Attribute("id")
+    @RequiredElement
+    public String id;
+
+    @Attribute("displayName")
+    @RequiredElement
+    public String displayName;
+
+    @Attribute("implementationClass")
+    @RequiredElement
+    public String implementationClass;
+
+    @Override
+    protected @Nullable String getImplementationClassName() {
+        return implementationClass;
+    }
+}
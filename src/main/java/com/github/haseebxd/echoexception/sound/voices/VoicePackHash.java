@@ -0,0 +1,133 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The minimal perfect hash of a {@link VoicePackTable}: the names placed in their slots and the
+ * displacement of every bucket. The {@code generateVoicePacks} Gradle task compiles this class
+ * to place the names, so placement and lookup share one {@link #hash}.
+ * <p>
+ * Buckets are placed largest first, each with the first displacement that sends all its names to
+ * free slots. A bucket that finds none within {@link #MAX_DISPLACEMENT} tries makes the search
+ * start over with twice the buckets, up to {@link #MAX_BUCKETS_PER_NAME} per name.
+ */
+final class VoicePackHash {
+
+    static final int MAX_DISPLACEMENT = 1 << 16;
+    static final int MAX_BUCKETS_PER_NAME = 4;
+
+    private final String[] names;
+    private final int[] displacements;
+
+    private VoicePackHash(@NotNull String[] names, @NotNull int[] displacements) {
+        this.names = names;
+        this.displacements = displacements;
+    }
+
+    static int hash(@NotNull String name, int seed) {
+        int h = name.hashCode() ^ (seed * 0x9E3779B9);
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Places {@code keys}, which must be distinct.
+     *
+     * @throws IllegalStateException if no placement is found within the search limits
+     */
+    @NotNull
+    static VoicePackHash place(@NotNull List<String> keys) {
+        if (new HashSet<>(keys).size() != keys.size()) {
+            throw new IllegalArgumentException("Names are not distinct: " + keys);
+        }
+        int maxBuckets = MAX_BUCKETS_PER_NAME * Math.max(1, keys.size());
+        for (int buckets = Math.max(1, (keys.size() + 1) / 2); buckets <= maxBuckets; buckets *= 2) {
+            VoicePackHash placed = place(keys, buckets);
+            if (placed != null) {
+                return placed;
+            }
+        }
+        throw new IllegalStateException("No perfect hash for " + keys.size() + " names within "
+                + maxBuckets + " buckets of " + MAX_DISPLACEMENT + " displacements");
+    }
+
+    private static VoicePackHash place(@NotNull List<String> keys, int bucketCount) {
+        List<List<String>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (String key : keys) {
+            buckets.get(hash(key, 0) % bucketCount).add(key);
+        }
+        List<Integer> order = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt((Integer bucket) -> buckets.get(bucket).size()).reversed());
+
+        String[] slots = new String[keys.size()];
+        int[] displacements = new int[bucketCount];
+        int[] candidate = new int[keys.size()];
+        for (int bucket : order) {
+            List<String> members = buckets.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+            int displacement = findDisplacement(members, slots, candidate);
+            if (displacement < 0) {
+                return null;
+            }
+            for (int i = 0; i < members.size(); i++) {
+                slots[candidate[i]] = members.get(i);
+            }
+            displacements[bucket] = displacement;
+        }
+        return new VoicePackHash(slots, displacements);
+    }
+
+    // Leaves the slots of the found displacement in candidate
+    private static int findDisplacement(@NotNull List<String> members, @NotNull String[] slots, @NotNull int[] candidate) {
+        search:
+        for (int displacement = 1; displacement <= MAX_DISPLACEMENT; displacement++) {
+            for (int i = 0; i < members.size(); i++) {
+                int slot = hash(members.get(i), displacement) % slots.length;
+                if (slots[slot] != null) {
+                    continue search;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (candidate[j] == slot) {
+                        continue search;
+                    }
+                }
+                candidate[i] = slot;
+            }
+            return displacement;
+        }
+        return -1;
+    }
+
+    /**
+     * Exception names by slot.
+     */
+    @NotNull
+    String[] names() {
+        return names;
+    }
+
+    /**
+     * Second-hash seed of each bucket.
+     */
+    @NotNull
+    int[] displacements() {
+        return displacements;
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.extensions.ExtensionPointName;
+import com.intellij.openapi.util.Disposer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Every voice pack that can be selected: the built-in ones, those other plugins contribute
+ * through the {@link #EP_NAME} extension point, and those the user installed as files (see
+ * {@link ExternalVoicePacks}).
+ * <p>
+ * The registry is an immutable snapshot of all packs, built once and rebuilt only when a plugin
+ * contributing packs is loaded or unloaded or an installed pack changes, so a lookup is an array
+ * index by ordinal or a single map read by id. A pack's class is loaded and instantiated on first
+ * use, and the instance is kept for as long as its plugin is.
+ * <p>
+ * The extension-point listener and the installed packs belong to this application service, so
+ * they are released with it when EchoException itself is unloaded.
+ */
+@Service(Service.Level.APP)
+public final class VoicePackRegistry implements Disposable {
+    private static final Logger LOG = Logger.getInstance(VoicePackRegistry.class);
+
+    public static final ExtensionPointName<VoicePackBean> EP_NAME =
+            ExtensionPointName.create("com.github.haseebxd.echoexception.voicePack");
+
+    /** Pack used when the selected one is unknown, e.g. because the plugin providing it was removed. */
+    public static final String DEFAULT_PACK_ID = "SATORU_GOJO";
+
+    /**
+     * One registered pack.
+     */
+    public static final class Entry {
+        private final String id;
+        private final String displayName;
+        private final int ordinal;
+        private final Supplier<VoicePack> pack;
+
+        private Entry(@NotNull String id, @NotNull String displayName, int ordinal, @NotNull Supplier<VoicePack> pack) {
+            this.id = id;
+            this.displayName = displayName;
+            this.ordinal = ordinal;
+            this.pack = pack;
+        }
+
+        @NotNull
+        public String id() {
+            return id;
+        }
+
+        @NotNull
+        public String displayName() {
+            return displayName;
+        }
+
+        /**
+         * Position of the pack in {@link #getEntries()}; only stable until packs are added or removed.
+         */
+        public int ordinal() {
+            return ordinal;
+        }
+
+        /**
+         * The pack itself, created on the first call.
+         */
+        @NotNull
+        public VoicePack pack() {
+            return pack.get();
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    private record Snapshot(@NotNull Entry[] byOrdinal, @NotNull Map<String, Entry> byId, @NotNull List<Entry> entries) {
+    }
+
+    private final Supplier<List<VoicePackBean>> contributed;
+    private final Supplier<List<ExternalVoicePack>> installed;
+    private volatile Snapshot snapshot;
+
+    public VoicePackRegistry() {
+        ExternalVoicePacks external = new ExternalVoicePacks(ExternalVoicePacks.defaultDirectory(), this::rebuild);
+        this.contributed = EP_NAME::getExtensionList;
+        this.installed = external::getPacks;
+        Disposer.register(this, external);
+        EP_NAME.addChangeListener(this::rebuild, this);
+        external.start();
+        rebuild();
+    }
+
+    /**
+     * @param contributed the packs registered through the extension point
+     * @param installed   the packs installed as files
+     */
+    VoicePackRegistry(@NotNull Supplier<List<VoicePackBean>> contributed,
+                      @NotNull Supplier<List<ExternalVoicePack>> installed) {
+        this.contributed = contributed;
+        this.installed = installed;
+    }
+
+    public static VoicePackRegistry getInstance() {
+        return ApplicationManager.getApplication().getService(VoicePackRegistry.class);
+    }
+
+    @Override
+    public void dispose() {
+        // the extension-point listener and the installed packs are disposed as children
+    }
+
+    /**
+     * Takes a new snapshot of the packs; called whenever a source changes.
+     */
+    synchronized void rebuild() {
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Entry> byId = new HashMap<>();
+        for (VoicePackBean bean : contributed.get()) {
+            add(new Entry(bean.id, bean.displayName, entries.size(), bean::getInstance), bean.implementationClass, entries, byId);
+        }
+        for (ExternalVoicePack pack : installed.get()) {
+            add(new Entry(pack.id(), pack.displayName(), entries.size(), () -> pack), pack.rootUri(), entries, byId);
+        }
+        snapshot = new Snapshot(entries.toArray(new Entry[0]), Map.copyOf(byId), List.copyOf(entries));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("EchoException: Voice packs registered: " + entries);
+        }
+    }
+
+    private static void add(@NotNull Entry entry, @NotNull String source,
+                            @NotNull List<Entry> entries, @NotNull Map<String, Entry> byId) {
+        if (byId.putIfAbsent(entry.id(), entry) != null) {
+            LOG.warn("EchoException: Voice pack id " + entry.id() + " is registered twice, ignoring " + source);
+            return;
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * All packs, in registration order, installed packs last.
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        return snapshot.entries();
+    }
+
+    @NotNull
+    public Entry get(int ordinal) {
+        return snapshot.byOrdinal()[ordinal];
+    }
+
+    @Nullable
+    public Entry find(@Nullable String id) {
+        return id == null ? null : snapshot.byId().get(id);
+    }
+
+    /**
+     * The pack with {@code id}, or the default pack if there is none.
+     */
+    @NotNull
+    public Entry getOrDefault(@Nullable String id) {
+        Snapshot current = snapshot;
+        Entry entry = id == null ? null : current.byId().get(id);
+        if (entry == null) {
+            entry = current.byId().get(DEFAULT_PACK_ID);
+        }
+        if (entry == null) {
+            // The built-in packs are always registered, so this only happens if the descriptor is broken
+            entry = current.byOrdinal()[0];
+        }
+        return entry;
+    }
+}
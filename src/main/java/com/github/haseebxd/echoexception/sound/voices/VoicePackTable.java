@@ -0,0 +1,95 @@
+package com.github.haseebxd.echoexception.sound.voices;
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The clips and lines of a built-in voice pack, in the arrays the {@code generateVoicePacks}
+ * Gradle task emits from the pack's {@code voice-pack.properties} descriptor.
+ * <p>
+ * Exception names are placed by a minimal perfect hash (hash and displace): the first hash of a
+ * name picks a bucket, the bucket's displacement seeds the second hash, and that picks the one
+ * slot the name can be in. Finding the entry for a name is therefore two hashes, one array read
+ * and one {@code equals}, with no collisions to probe, and building the pack at class
+ * initialization is a few array literals instead of filling hash maps. {@link VoicePackHash}
+ * places the names.
+ */
+final class VoicePackTable {
+
+    private final String[] names;
+    private final String[] sounds;
+    private final String[] notifications;
+    private final int[] displacements;
+    private final String defaultSound;
+    private final String defaultNotification;
+
+    /**
+     * @param names         exception names by slot
+     * @param sounds        clip of each slot, {@code null} if the name only has a line
+     * @param notifications line of each slot, {@code null} if the name only has a clip
+     * @param displacements second-hash seed of each bucket
+     */
+    VoicePackTable(@NotNull String[] names, @NotNull String[] sounds, @NotNull String[] notifications,
+                   @NotNull int[] displacements, @NotNull String defaultSound, @NotNull String defaultNotification) {
+        this.names = names;
+        this.sounds = sounds;
+        this.notifications = notifications;
+        this.displacements = displacements;
+        this.defaultSound = defaultSound;
+        this.defaultNotification = defaultNotification;
+    }
+
+    private int slotOf(@NotNull String name) {
+        if (names.length == 0) {
+            return -1;
+        }
+        int displacement = displacements[VoicePackHash.hash(name, 0) % displacements.length];
+        int slot = VoicePackHash.hash(name, displacement) % names.length;
+        return name.equals(names[slot]) ? slot : -1;
+    }
+
+    /**
+     * The clip of the nearest supertype of {@code exceptionType} that has one, or the default clip.
+     */
+    @NotNull
+    String sound(@NotNull ExceptionType exceptionType) {
+        return nearest(exceptionType, sounds, defaultSound);
+    }
+
+    @NotNull
+    String notification(@NotNull ExceptionType exceptionType) {
+        return nearest(exceptionType, notifications, defaultNotification);
+    }
+
+    @NotNull
+    private String nearest(@NotNull ExceptionType exceptionType, @NotNull String[] values, @NotNull String fallback) {
+        List<String> lineage = exceptionType.lineage();
+        for (int i = 0; i < lineage.size(); i++) {
+            int slot = slotOf(lineage.get(i));
+            if (slot >= 0 && values[slot] != null) {
+                return values[slot];
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * The default clip followed by every mapped one.
+     */
+    @NotNull
+    Collection<String> soundResources() {
+        Set<String> resources = new LinkedHashSet<>();
+        resources.add(defaultSound);
+        for (String sound : sounds) {
+            if (sound != null) {
+                resources.add(sound);
+            }
+        }
+        return resources;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.haseebxd.echoexception.startup;
 
 import com.github.haseebxd.echoexception.services.core.ExceptionConsoleListener;
+import com.github.haseebxd.echoexception.sound.engine.SoundPrewarmer;
 import com.intellij.execution.ExecutionListener;
 import com.intellij.execution.ExecutionManager;
 import com.intellij.execution.process.ProcessHandler;
@@ -61,6 +62,9 @@ public class EchoExceptionStartupActivity implements ProjectActivity {
             LOG.warn("EchoException: Failed to subscribe to ExecutionManager.EXECUTION_TOPIC", e);
         }
 
+        // Decode the selected voice pack in the background so the first exception plays without delay
+        SoundPrewarmer.getInstance().prewarmAfterStartup();
+
         return CompletableFuture.completedFuture(null);
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.github.haseebxd.echoexception.ui.setting;
 
+import com.github.haseebxd.echoexception.services.core.GlobalStormBucket;
 import com.github.haseebxd.echoexception.services.core.SoundTriggerService;
 import com.github.haseebxd.echoexception.services.settings.SoundSettings;
-import com.github.haseebxd.echoexception.sound.GameSoundType;
+import com.github.haseebxd.echoexception.sound.engine.AudioOutputEngine;
+import com.github.haseebxd.echoexception.sound.engine.PcmCache;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
+import com.github.haseebxd.echoexception.ui.tabs.DetectionTab;
 import com.github.haseebxd.echoexception.ui.tabs.SoundTab;
 import com.github.haseebxd.echoexception.ui.tabs.ToolTab;
 import com.github.haseebxd.echoexception.ui.tabs.ToolTabFactory;
@@ -20,12 +24,13 @@ public class EchoExceptionConfigurable implements Configurable {
     private JTabbedPane tabbedPane;
     private final Project project;
     private SoundTab soundTab;
+    private DetectionTab detectionTab;
     
     // Store original settings to detect changes
     private boolean originalSoundEnabled;
     private boolean originalNotificationEnabled;
     private int originalVolume;
-    private GameSoundType originalSoundType;
+    private String originalSoundPackId;
 
     public EchoExceptionConfigurable(Project project) {
         this.project = project;
@@ -46,6 +51,8 @@ public class EchoExceptionConfigurable implements Configurable {
 
                 if (tab instanceof SoundTab) {
                     this.soundTab = (SoundTab) tab;
+                } else if (tab instanceof DetectionTab) {
+                    this.detectionTab = (DetectionTab) tab;
                 }
             }
             // Capture original settings when component is created
@@ -56,21 +63,45 @@ public class EchoExceptionConfigurable implements Configurable {
 
     @Override
     public boolean isModified() {
-        // Only check for modifications if we have a SoundTab (other tabs don't have settings)
+        return isSoundTabModified() || isDetectionTabModified();
+    }
+
+    private boolean isSoundTabModified() {
         if (soundTab == null) {
             return false;
         }
-        
+        SoundSettings settings = SoundSettings.getInstance();
+
         // Check if any UI values have changed from original settings
         return originalSoundEnabled != soundTab.isSoundEnabled() ||
                originalNotificationEnabled != soundTab.isNotificationEnabled() ||
                originalVolume != soundTab.getVolume() ||
-               !originalSoundType.equals(soundTab.getSoundType());
+               !originalSoundPackId.equals(soundTab.getSoundPackId()) ||
+               settings.getPcmCacheBudgetMb() != soundTab.getPcmCacheBudgetMb() ||
+               settings.getMaxPolyphony() != soundTab.getMaxPolyphony() ||
+               settings.getTypeCooldownMs() != soundTab.getTypeCooldownMs() ||
+               settings.getPackCooldownMs() != soundTab.getPackCooldownMs();
+    }
+
+    private boolean isDetectionTabModified() {
+        if (detectionTab == null) {
+            return false;
+        }
+        SoundSettings settings = SoundSettings.getInstance();
+        return settings.getStdoutScanPolicy() != detectionTab.getStdoutScanPolicy() ||
+               settings.getStderrScanPolicy() != detectionTab.getStderrScanPolicy() ||
+               settings.getSystemScanPolicy() != detectionTab.getSystemScanPolicy() ||
+               settings.getExceptionRouting() != detectionTab.getExceptionRouting() ||
+               settings.getScanBudgetCharsPerSecond() != detectionTab.getScanBudgetCharsPerSecond() ||
+               settings.getStormThresholdPerProcess() != detectionTab.getStormThresholdPerProcess() ||
+               settings.getStormThresholdGlobal() != detectionTab.getStormThresholdGlobal();
     }
 
     @Override
     public void apply() {
-        // Only apply settings if we have a SoundTab (other tabs don't have settings to apply)
+        applyDetectionTab();
+
+        // Only apply sound settings if we have a SoundTab
         if (soundTab == null) {
             return;
         }
@@ -81,15 +112,22 @@ public class EchoExceptionConfigurable implements Configurable {
         boolean newSoundEnabled = soundTab.isSoundEnabled();
         boolean newNotificationEnabled = soundTab.isNotificationEnabled();
         int newVolume = soundTab.getVolume();
-        GameSoundType newSoundType = soundTab.getSoundType();
+        String newSoundPackId = soundTab.getSoundPackId();
         
         settings.setSoundEnabled(newSoundEnabled);
         settings.setNotificationEnabled(newNotificationEnabled);
         settings.setVolume(newVolume);
-        settings.setSoundType(newSoundType);
+        settings.setSoundPackId(newSoundPackId);
+        settings.setPcmCacheBudgetMb(soundTab.getPcmCacheBudgetMb());
+        PcmCache.getInstance().setBudgetMb(settings.getPcmCacheBudgetMb());
+        settings.setMaxPolyphony(soundTab.getMaxPolyphony());
+        AudioOutputEngine.getInstance().setMaxVoices(settings.getMaxPolyphony());
+        // Cooldowns are read on every play
+        settings.setTypeCooldownMs(soundTab.getTypeCooldownMs());
+        settings.setPackCooldownMs(soundTab.getPackCooldownMs());
         
         // Reset debounce when sound type changes
-        if (!originalSoundType.equals(newSoundType)) {
+        if (!originalSoundPackId.equals(newSoundPackId)) {
             SoundTriggerService.getInstance().resetDebounce();
         }
         
@@ -97,9 +135,31 @@ public class EchoExceptionConfigurable implements Configurable {
         captureOriginalSettings();
     }
 
+    private void applyDetectionTab() {
+        if (detectionTab == null) {
+            return;
+        }
+        SoundSettings settings = SoundSettings.getInstance();
+
+        // Listeners read these when a process starts, so running processes keep their own
+        settings.setStdoutScanPolicy(detectionTab.getStdoutScanPolicy());
+        settings.setStderrScanPolicy(detectionTab.getStderrScanPolicy());
+        settings.setSystemScanPolicy(detectionTab.getSystemScanPolicy());
+        settings.setExceptionRouting(detectionTab.getExceptionRouting());
+        settings.setScanBudgetCharsPerSecond(detectionTab.getScanBudgetCharsPerSecond());
+        settings.setStormThresholdPerProcess(detectionTab.getStormThresholdPerProcess());
+        // The global bucket is shared by all processes and changes for them at once
+        settings.setStormThresholdGlobal(detectionTab.getStormThresholdGlobal());
+        GlobalStormBucket.getInstance().setRatePerSecond(settings.getStormThresholdGlobal());
+    }
+
     @Override
     public void reset() {
-        // Only reset settings if we have a SoundTab (other tabs don't have settings to reset)
+        if (detectionTab != null) {
+            detectionTab.resetToOriginalSettings();
+        }
+
+        // Only reset sound settings if we have a SoundTab
         if (soundTab == null) {
             return;
         }
@@ -110,7 +170,7 @@ public class EchoExceptionConfigurable implements Configurable {
         settings.setSoundEnabled(originalSoundEnabled);
         settings.setNotificationEnabled(originalNotificationEnabled);
         settings.setVolume(originalVolume);
-        settings.setSoundType(originalSoundType);
+        settings.setSoundPackId(originalSoundPackId);
         
         // Reset the UI to reflect the original settings
         soundTab.resetToOriginalSettings();
@@ -120,6 +180,7 @@ public class EchoExceptionConfigurable implements Configurable {
     public void disposeUIResources() {
         tabbedPane = null;
         soundTab = null;
+        detectionTab = null;
     }
     
     /**
@@ -130,6 +191,7 @@ public class EchoExceptionConfigurable implements Configurable {
         originalSoundEnabled = settings.isSoundEnabled();
         originalNotificationEnabled = settings.isNotificationEnabled();
         originalVolume = settings.getVolume();
-        originalSoundType = settings.getSoundType();
+        // The stored pack may have been removed with its plugin; compare against the one in use
+        originalSoundPackId = VoicePackRegistry.getInstance().getOrDefault(settings.getSoundPackId()).id();
     }
 }
@@ -0,0 +1,152 @@
+package com.github.haseebxd.echoexception.ui.tabs;
+
+import com.github.haseebxd.echoexception.services.core.ConsoleScanPolicy;
+import com.github.haseebxd.echoexception.services.core.ExceptionRouting;
+import com.github.haseebxd.echoexception.services.settings.SoundSettings;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.SimpleListCellRenderer;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Detection tab: how console output is scanned for stack traces and which exception of a trace
+ * is announced. A running process keeps the settings it started with; changes apply to processes
+ * started afterwards, except the global storm threshold, which applies at once.
+ */
+public class DetectionTab implements ToolTab {
+
+    private static final int SPACING = 20;
+    private static final int BORDER_PADDING = 10;
+    private static final int LABEL_GAP = 8;
+    // The scan budget is stored in characters but edited in thousands of them
+    private static final int CHARS_PER_UNIT = 1_000;
+
+    private ComboBox<ConsoleScanPolicy> stdoutPolicyComboBox;
+    private ComboBox<ConsoleScanPolicy> stderrPolicyComboBox;
+    private ComboBox<ConsoleScanPolicy> systemPolicyComboBox;
+    private ComboBox<ExceptionRouting> routingComboBox;
+    private JBIntSpinner scanBudgetSpinner;
+    private JBIntSpinner stormPerProcessSpinner;
+    private JBIntSpinner stormGlobalSpinner;
+
+    private final SoundSettings soundSettings;
+
+    public DetectionTab() {
+        this.soundSettings = SoundSettings.getInstance();
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Detection";
+    }
+
+    @Override
+    public @NotNull JPanel getContent(@NotNull Project project) {
+        JBPanel<JBPanel<?>> panel = new JBPanel<>(new BorderLayout());
+        panel.setBorder(JBUI.Borders.empty(BORDER_PADDING));
+
+        JBPanel<JBPanel<?>> contentPanel = new JBPanel<>();
+        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+
+        stdoutPolicyComboBox = createPolicyComboBox();
+        stderrPolicyComboBox = createPolicyComboBox();
+        systemPolicyComboBox = createPolicyComboBox();
+        routingComboBox = new ComboBox<>(ExceptionRouting.values());
+        routingComboBox.setRenderer(SimpleListCellRenderer.create("", ExceptionRouting::getDisplayName));
+        scanBudgetSpinner = new JBIntSpinner(
+                (int) (SoundSettings.DEFAULT_SCAN_BUDGET_CHARS_PER_SECOND / CHARS_PER_UNIT), 100, 1_000_000, 500);
+        stormPerProcessSpinner = new JBIntSpinner(SoundSettings.DEFAULT_STORM_THRESHOLD_PER_PROCESS, 1, 1_000, 1);
+        stormGlobalSpinner = new JBIntSpinner(SoundSettings.DEFAULT_STORM_THRESHOLD_GLOBAL, 1, 10_000, 1);
+
+        contentPanel.add(createRow("Announce", routingComboBox));
+        contentPanel.add(Box.createVerticalStrut(SPACING));
+        contentPanel.add(createRow("Standard output", stdoutPolicyComboBox));
+        contentPanel.add(createRow("Standard error", stderrPolicyComboBox));
+        contentPanel.add(createRow("IDE messages", systemPolicyComboBox));
+        contentPanel.add(createRow("Full scanning up to (thousand characters/s per process)", scanBudgetSpinner));
+        contentPanel.add(Box.createVerticalStrut(SPACING));
+        contentPanel.add(createRow("Exception storm past (exceptions/s per process)", stormPerProcessSpinner));
+        contentPanel.add(createRow("Exception storm past (exceptions/s in all processes)", stormGlobalSpinner));
+        contentPanel.add(Box.createVerticalStrut(SPACING));
+
+        JBLabel note = new JBLabel("Running processes keep their settings until they are restarted.");
+        note.setEnabled(false);
+        contentPanel.add(createRow(note));
+
+        resetToOriginalSettings();
+
+        panel.add(contentPanel, BorderLayout.NORTH);
+        return panel;
+    }
+
+    @NotNull
+    private static ComboBox<ConsoleScanPolicy> createPolicyComboBox() {
+        ComboBox<ConsoleScanPolicy> comboBox = new ComboBox<>(ConsoleScanPolicy.values());
+        comboBox.setRenderer(SimpleListCellRenderer.create("", ConsoleScanPolicy::getDisplayName));
+        return comboBox;
+    }
+
+    @NotNull
+    private static JBPanel<JBPanel<?>> createRow(@NotNull String label, @NotNull JComponent component) {
+        JBPanel<JBPanel<?>> row = createRow(new JBLabel(label));
+        row.add(Box.createHorizontalStrut(LABEL_GAP));
+        row.add(component);
+        return row;
+    }
+
+    @NotNull
+    private static JBPanel<JBPanel<?>> createRow(@NotNull JComponent component) {
+        JBPanel<JBPanel<?>> row = new JBPanel<>(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        row.setAlignmentX(Component.LEFT_ALIGNMENT);
+        row.add(component);
+        return row;
+    }
+
+    /**
+     * Reset the UI to the saved settings values
+     */
+    public void resetToOriginalSettings() {
+        stdoutPolicyComboBox.setSelectedItem(soundSettings.getStdoutScanPolicy());
+        stderrPolicyComboBox.setSelectedItem(soundSettings.getStderrScanPolicy());
+        systemPolicyComboBox.setSelectedItem(soundSettings.getSystemScanPolicy());
+        routingComboBox.setSelectedItem(soundSettings.getExceptionRouting());
+        scanBudgetSpinner.setNumber((int) Math.min(Integer.MAX_VALUE, soundSettings.getScanBudgetCharsPerSecond() / CHARS_PER_UNIT));
+        stormPerProcessSpinner.setNumber(soundSettings.getStormThresholdPerProcess());
+        stormGlobalSpinner.setNumber(soundSettings.getStormThresholdGlobal());
+    }
+
+    public ConsoleScanPolicy getStdoutScanPolicy() {
+        return (ConsoleScanPolicy) stdoutPolicyComboBox.getSelectedItem();
+    }
+
+    public ConsoleScanPolicy getStderrScanPolicy() {
+        return (ConsoleScanPolicy) stderrPolicyComboBox.getSelectedItem();
+    }
+
+    public ConsoleScanPolicy getSystemScanPolicy() {
+        return (ConsoleScanPolicy) systemPolicyComboBox.getSelectedItem();
+    }
+
+    public ExceptionRouting getExceptionRouting() {
+        return (ExceptionRouting) routingComboBox.getSelectedItem();
+    }
+
+    public long getScanBudgetCharsPerSecond() {
+        return (long) scanBudgetSpinner.getNumber() * CHARS_PER_UNIT;
+    }
+
+    public int getStormThresholdPerProcess() {
+        return stormPerProcessSpinner.getNumber();
+    }
+
+    public int getStormThresholdGlobal() {
+        return stormGlobalSpinner.getNumber();
+    }
+}
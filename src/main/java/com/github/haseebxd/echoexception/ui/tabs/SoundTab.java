@@ -2,10 +2,12 @@ package com.github.haseebxd.echoexception.ui.tabs;
 
 import com.github.haseebxd.echoexception.services.core.SoundTriggerService;
 import com.github.haseebxd.echoexception.services.settings.SoundSettings;
-import com.github.haseebxd.echoexception.sound.GameSoundType;
+import com.github.haseebxd.echoexception.sound.engine.SoundPrewarmer;
+import com.github.haseebxd.echoexception.sound.voices.VoicePackRegistry;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.JBIntSpinner;
 import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
@@ -15,7 +17,7 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Arrays;
+import java.util.List;
 
 /**
  * Sound configuration tab for the EchoException plugin.
@@ -28,14 +30,23 @@ public class SoundTab implements ToolTab {
     private static final int DEFAULT_VOLUME = 70;
     private static final int SPACING = 20;
     private static final int BORDER_PADDING = 10;
+    private static final int LABEL_GAP = 8;
 
 
     private JBCheckBox enableSoundCheckbox;
     private JBCheckBox enableNotificationCheckbox;
     private JBSlider volumeSlider;
     private ComboBox<String> soundTypeComboBox;
+    // Packs in combo box order, as they were registered when the tab was created
+    private List<VoicePackRegistry.Entry> soundPacks;
     private JBLabel volumeLabel;
     private JBLabel soundTypeLabel;
+    private JBIntSpinner pcmCacheSpinner;
+    private JBIntSpinner maxPolyphonySpinner;
+    private JBIntSpinner typeCooldownSpinner;
+    private JBIntSpinner packCooldownSpinner;
+    // Set while the controls are filled from the settings, so only the user's own changes react
+    private boolean loadingSettings;
 
 
 
@@ -89,13 +100,19 @@ public class SoundTab implements ToolTab {
 
         soundTypeLabel = new JBLabel("Sound type");
         soundTypeLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        soundPacks = VoicePackRegistry.getInstance().getEntries();
         soundTypeComboBox = new ComboBox<>(
-                Arrays.stream(GameSoundType.values())
-                        .map(GameSoundType::getDisplayName)
+                soundPacks.stream()
+                        .map(VoicePackRegistry.Entry::displayName)
                         .toArray(String[]::new)
         );
-        soundTypeComboBox.setSelectedItem(GameSoundType.SATORU_GOJO);
+        soundTypeComboBox.setSelectedItem(VoicePackRegistry.getInstance().getOrDefault(null).displayName());
         soundTypeComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, soundTypeComboBox.getPreferredSize().height));
+
+        pcmCacheSpinner = new JBIntSpinner(SoundSettings.DEFAULT_PCM_CACHE_BUDGET_MB, 0, 512, 1);
+        maxPolyphonySpinner = new JBIntSpinner(SoundSettings.DEFAULT_MAX_POLYPHONY, 1, 16, 1);
+        typeCooldownSpinner = new JBIntSpinner(SoundSettings.DEFAULT_TYPE_COOLDOWN_MS, 0, 60_000, 500);
+        packCooldownSpinner = new JBIntSpinner(SoundSettings.DEFAULT_PACK_COOLDOWN_MS, 0, 10_000, 100);
     }
 
     private void addComponentsToPanel(JBPanel<JBPanel<?>> panel) {
@@ -128,6 +145,20 @@ public class SoundTab implements ToolTab {
 
         panel.add(soundTypeComboBox);
         panel.add(Box.createVerticalStrut(SPACING));
+
+        panel.add(createSpinnerRow("Decoded sound cache (MB)", pcmCacheSpinner));
+        panel.add(createSpinnerRow("Sounds playing at once", maxPolyphonySpinner));
+        panel.add(createSpinnerRow("Repeat the same exception after (ms)", typeCooldownSpinner));
+        panel.add(createSpinnerRow("Play any sound again after (ms)", packCooldownSpinner));
+    }
+
+    private static JBPanel<JBPanel<?>> createSpinnerRow(String label, JBIntSpinner spinner) {
+        JBPanel<JBPanel<?>> row = new JBPanel<>(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        row.setOpaque(false);
+        row.add(new JBLabel(label));
+        row.add(Box.createHorizontalStrut(LABEL_GAP));
+        row.add(spinner);
+        return row;
     }
 
 
@@ -150,7 +181,10 @@ public class SoundTab implements ToolTab {
         });
 
         soundTypeComboBox.addActionListener(e -> {
-            // Settings will be applied through EchoExceptionConfigurable
+            // Settings will be applied through EchoExceptionConfigurable; start decoding the pack now
+            if (!loadingSettings) {
+                SoundPrewarmer.getInstance().prewarm(getSoundPackId());
+            }
         });
     }
 
@@ -165,11 +199,28 @@ public class SoundTab implements ToolTab {
         enableSoundCheckbox.setSelected(soundSettings.isSoundEnabled());
         enableNotificationCheckbox.setSelected(soundSettings.isNotificationEnabled());
         volumeSlider.setValue(soundSettings.getVolume());
-        soundTypeComboBox.setSelectedItem(soundSettings.getSoundType().getDisplayName());
+        selectSavedSoundPack();
+        loadPlaybackSettings();
 
         updateComponentStates(soundSettings.isSoundEnabled());
     }
+
+    private void loadPlaybackSettings() {
+        pcmCacheSpinner.setNumber(soundSettings.getPcmCacheBudgetMb());
+        maxPolyphonySpinner.setNumber(soundSettings.getMaxPolyphony());
+        typeCooldownSpinner.setNumber(soundSettings.getTypeCooldownMs());
+        packCooldownSpinner.setNumber(soundSettings.getPackCooldownMs());
+    }
     
+    private void selectSavedSoundPack() {
+        loadingSettings = true;
+        try {
+            soundTypeComboBox.setSelectedItem(VoicePackRegistry.getInstance().getOrDefault(soundSettings.getSoundPackId()).displayName());
+        } finally {
+            loadingSettings = false;
+        }
+    }
+
     /**
      * Reset the UI to the original settings values
      */
@@ -177,7 +228,8 @@ public class SoundTab implements ToolTab {
         enableSoundCheckbox.setSelected(soundSettings.isSoundEnabled());
         enableNotificationCheckbox.setSelected(soundSettings.isNotificationEnabled());
         volumeSlider.setValue(soundSettings.getVolume());
-        soundTypeComboBox.setSelectedItem(soundSettings.getSoundType().getDisplayName());
+        selectSavedSoundPack();
+        loadPlaybackSettings();
         
         // Update volume label
         int currentVolume = volumeSlider.getValue();
@@ -208,10 +260,38 @@ public class SoundTab implements ToolTab {
     }
     
     /**
-     * Get current sound type from UI
+     * Get id of the voice pack selected in the UI
+     */
+    public String getSoundPackId() {
+        int selected = soundTypeComboBox.getSelectedIndex();
+        return selected >= 0 ? soundPacks.get(selected).id() : VoicePackRegistry.getInstance().getOrDefault(null).id();
+    }
+
+    /**
+     * Get decoded sound cache budget in megabytes from UI
+     */
+    public int getPcmCacheBudgetMb() {
+        return pcmCacheSpinner.getNumber();
+    }
+
+    /**
+     * Get how many clips may play at once from UI
+     */
+    public int getMaxPolyphony() {
+        return maxPolyphonySpinner.getNumber();
+    }
+
+    /**
+     * Get same-exception cooldown from UI
+     */
+    public int getTypeCooldownMs() {
+        return typeCooldownSpinner.getNumber();
+    }
+
+    /**
+     * Get cooldown between any two sounds from UI
      */
-    public GameSoundType getSoundType() {
-        String selectedType = (String) soundTypeComboBox.getSelectedItem();
-        return GameSoundType.fromDisplayName(selectedType);
+    public int getPackCooldownMs() {
+        return packCooldownSpinner.getNumber();
     }
 }
\ No newline at end of file
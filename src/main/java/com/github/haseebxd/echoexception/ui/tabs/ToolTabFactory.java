@@ -10,6 +10,7 @@ public class ToolTabFactory {
     public static List<ToolTab> getTabs() {
         return List.of(
                 new SoundTab(),
+                new DetectionTab(),
                 new AchievementTab()
                 // Add other tabs here as needed
         );
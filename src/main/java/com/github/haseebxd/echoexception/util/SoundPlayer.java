@@ -1,112 +1,54 @@
 package com.github.haseebxd.echoexception.util;
 
+import com.github.haseebxd.echoexception.sound.engine.AudioOutputEngine;
+import com.github.haseebxd.echoexception.sound.engine.DecodedClip;
+import com.github.haseebxd.echoexception.sound.engine.PcmCache;
+import com.github.haseebxd.echoexception.sound.engine.PlaybackResult;
+import com.github.haseebxd.echoexception.sound.engine.VoicePriority;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
 
 import javax.sound.sampled.*;
-import java.io.IOException;
-import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class SoundPlayer {
 
     private static final Logger LOG = Logger.getInstance(SoundPlayer.class);
 
-    public boolean play(String resourcePath, int volume) {
+    /**
+     * Starts playing a voice-pack clip without blocking the caller. A clip that is not cached yet
+     * is decoded on a pooled thread first.
+     *
+     * @return a future completed once the clip has been heard, or has been dropped or failed
+     */
+    public CompletableFuture<PlaybackResult> play(String resourcePath, int volume, VoicePriority priority) {
         LOG.info("EchoException: SoundPlayer.play() called with resourcePath: '" + resourcePath + "', volume: " + volume);
 
-        try {
-            // Try to get the resource URL
-            URL soundURL = getClass().getClassLoader().getResource(resourcePath);
-            LOG.info("EchoException: Resource URL: " + (soundURL != null ? soundURL.toString() : "null"));
-
-            if (soundURL == null) {
-                LOG.error("EchoException: Sound resource not found: " + resourcePath);
-
-                // Try alternative class loader approaches
-                soundURL = getClass().getResource("/" + resourcePath);
-                LOG.info("EchoException: Alternative resource URL (with /): " + (soundURL != null ? soundURL.toString() : "null"));
-
-                if (soundURL == null) {
-                    soundURL = Thread.currentThread().getContextClassLoader().getResource(resourcePath);
-                    LOG.info("EchoException: Thread context classloader URL: " + (soundURL != null ? soundURL.toString() : "null"));
-                }
-
-                if (soundURL == null) {
-                    LOG.error("EchoException: Failed to find resource with all methods: " + resourcePath);
-                    return false;
-                }
-            }
-
-            LOG.info("EchoException: Loading audio stream from URL: " + soundURL);
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundURL);
-            LOG.info("EchoException: Audio stream created successfully");
-
-            // Get audio format info
-            AudioFormat format = audioStream.getFormat();
-            LOG.info("EchoException: Audio format: " + format.toString());
-
-            LOG.info("EchoException: Getting clip from audio system...");
-            Clip clip = AudioSystem.getClip();
-            LOG.info("EchoException: Clip created: " + clip.getClass().getSimpleName());
-
-            LOG.info("EchoException: Opening clip with audio stream...");
-            clip.open(audioStream);
-            LOG.info("EchoException: Clip opened successfully");
-
-            // Set volume control
-            try {
-                if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                    FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                    float range = volumeControl.getMaximum() - volumeControl.getMinimum();
-                    float gain = (range * volume / 100f) + volumeControl.getMinimum();
-
-                    LOG.info("EchoException: Volume control range: " + volumeControl.getMinimum() + " to " + volumeControl.getMaximum());
-                    LOG.info("EchoException: Setting gain to: " + gain);
-
-                    volumeControl.setValue(gain);
-                    LOG.info("EchoException: Volume set successfully");
-                } else {
-                    LOG.warn("EchoException: MASTER_GAIN control not supported");
-
-                    // Try alternative volume controls
-                    Control[] controls = clip.getControls();
-                    LOG.info("EchoException: Available controls: " + controls.length);
-                    for (Control control : controls) {
-                        LOG.info("EchoException: Control: " + control.getType() + " - " + control.getClass().getSimpleName());
-                    }
-                }
-            } catch (Exception e) {
-                LOG.warn("EchoException: Failed to set volume", e);
-            }
-
-            LOG.info("EchoException: Starting clip playback...");
-            clip.start();
-            LOG.info("EchoException: Clip started successfully");
-
-            // Optional: Add a small delay to ensure playback starts
-            try {
-                Thread.sleep(100);
-                LOG.info("EchoException: Clip is running: " + clip.isRunning());
-                LOG.info("EchoException: Clip frame position: " + clip.getFramePosition());
-                LOG.info("EchoException: Clip frame length: " + clip.getFrameLength());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            return true;
+        // Decoded once per clip; later plays skip the jar read and the WAV decode
+        long lookupStart = System.nanoTime();
+        DecodedClip cached = PcmCache.getInstance().getIfCached(resourcePath);
+        if (cached != null) {
+            return AudioOutputEngine.getInstance().play(cached, volume, priority, System.nanoTime() - lookupStart);
+        }
+        return CompletableFuture
+                .supplyAsync(() -> decodeAndPlay(resourcePath, volume, priority), AppExecutorUtil.getAppExecutorService())
+                .thenCompose(Function.identity())
+                .exceptionally(e -> {
+                    LOG.error("EchoException: Unexpected error while playing sound: " + resourcePath, e);
+                    return PlaybackResult.failed(resourcePath, 0);
+                });
+    }
 
-        } catch (UnsupportedAudioFileException e) {
-            LOG.error("EchoException: Unsupported audio file format: " + resourcePath, e);
-            return false;
-        } catch (IOException e) {
-            LOG.error("EchoException: IO error playing sound: " + resourcePath, e);
-            return false;
-        } catch (LineUnavailableException e) {
-            LOG.error("EchoException: Audio line unavailable: " + resourcePath, e);
-            return false;
-        } catch (Exception e) {
-            LOG.error("EchoException: Unexpected error while playing sound: " + resourcePath, e);
-            return false;
+    private static CompletableFuture<PlaybackResult> decodeAndPlay(String resourcePath, int volume, VoicePriority priority) {
+        long decodeStart = System.nanoTime();
+        DecodedClip decoded = PcmCache.getInstance().get(resourcePath);
+        long decodeNanos = System.nanoTime() - decodeStart;
+        if (decoded == null) {
+            LOG.error("EchoException: Failed to load sound resource: " + resourcePath);
+            return CompletableFuture.completedFuture(PlaybackResult.failed(resourcePath, decodeNanos));
         }
+        return AudioOutputEngine.getInstance().play(decoded, volume, priority, decodeNanos);
     }
 
     // Test method to check available audio resources
@@ -0,0 +1,106 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+
+class DuplicateTraceFilterTest : TestCase() {
+
+    private fun fingerprint(trace: String): Long {
+        val blocks = mutableListOf<StackTraceBlock>()
+        val parser = StackTraceParser { blocks.add(it) }
+        parser.feed(trace.trimIndent() + "\n")
+        parser.flush()
+        return blocks.single().fingerprint(DuplicateTraceFilter.FINGERPRINT_FRAMES)
+    }
+
+    fun testRepeatWithinTheWindowIsADuplicate() {
+        val filter = DuplicateTraceFilter()
+
+        assertFalse(filter.isDuplicate(42, 1_000))
+        assertTrue(filter.isDuplicate(42, 1_000 + DuplicateTraceFilter.DEFAULT_WINDOW_MS - 1))
+        assertFalse(filter.isDuplicate(7, 1_500))
+    }
+
+    fun testRepeatAfterTheWindowIsReportedAgain() {
+        val filter = DuplicateTraceFilter()
+
+        assertFalse(filter.isDuplicate(42, 1_000))
+        assertFalse(filter.isDuplicate(42, 1_000 + DuplicateTraceFilter.DEFAULT_WINDOW_MS))
+        // the window restarts from the repeat that was reported
+        assertTrue(filter.isDuplicate(42, 1_000 + DuplicateTraceFilter.DEFAULT_WINDOW_MS + 1))
+    }
+
+    fun testEldestFingerprintIsEvictedPastCapacity() {
+        val filter = DuplicateTraceFilter()
+        for (fingerprint in 0L until DuplicateTraceFilter.DEFAULT_CAPACITY) {
+            assertFalse(filter.isDuplicate(fingerprint, 1_000))
+        }
+        // touching 0 makes 1 the least recently used entry
+        assertTrue(filter.isDuplicate(0, 1_001))
+        assertFalse(filter.isDuplicate(DuplicateTraceFilter.DEFAULT_CAPACITY.toLong(), 1_002))
+
+        assertFalse("evicted, so seen as new", filter.isDuplicate(1, 1_003))
+        assertTrue(filter.isDuplicate(0, 1_004))
+    }
+
+    fun testSameCallSiteSharesAFingerprintWhateverTheMessage() {
+        val first = fingerprint(
+            """
+            java.lang.IllegalStateException: order 1 failed
+            	at com.example.Orders.place(Orders.java:10)
+            	at com.example.Api.post(Api.java:20)
+            """
+        )
+        val second = fingerprint(
+            """
+            java.lang.IllegalStateException: order 2 failed
+            	at com.example.Orders.place(Orders.java:10)
+            	at com.example.Api.post(Api.java:20)
+            """
+        )
+
+        assertEquals(first, second)
+    }
+
+    fun testOtherTypesAndCallSitesDoNotCollide() {
+        val base = fingerprint(
+            """
+            java.lang.IllegalStateException: failed
+            	at com.example.Orders.place(Orders.java:10)
+            	at com.example.Api.post(Api.java:20)
+            """
+        )
+        val otherType = fingerprint(
+            """
+            java.lang.IllegalArgumentException: failed
+            	at com.example.Orders.place(Orders.java:10)
+            	at com.example.Api.post(Api.java:20)
+            """
+        )
+        val otherLine = fingerprint(
+            """
+            java.lang.IllegalStateException: failed
+            	at com.example.Orders.place(Orders.java:11)
+            	at com.example.Api.post(Api.java:20)
+            """
+        )
+        val swappedFrames = fingerprint(
+            """
+            java.lang.IllegalStateException: failed
+            	at com.example.Api.post(Api.java:20)
+            	at com.example.Orders.place(Orders.java:10)
+            """
+        )
+
+        assertEquals(4, setOf(base, otherType, otherLine, swappedFrames).size)
+    }
+
+    fun testFramesPastTheFingerprintDepthAreIgnored() {
+        val frames = (1..DuplicateTraceFilter.FINGERPRINT_FRAMES).joinToString("\n") {
+            "\tat com.example.Layer$it.call(Layer$it.java:$it)"
+        }
+        val shallow = fingerprint("java.lang.IllegalStateException\n$frames\n\tat com.example.Main.main(Main.java:1)")
+        val deep = fingerprint("java.lang.IllegalStateException\n$frames\n\tat com.example.Worker.run(Worker.java:9)")
+
+        assertEquals(shallow, deep)
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+
+class ExceptionConsoleListenerTest : TestCase() {
+
+    private fun parse(trace: String): StackTraceBlock {
+        val blocks = mutableListOf<StackTraceBlock>()
+        val parser = StackTraceParser { blocks.add(it) }
+        parser.feed(trace.trimIndent() + "\n")
+        parser.flush()
+        return blocks.single()
+    }
+
+    fun testKnownJdkNamesResolveWithOrWithoutPackage() {
+        val simple = ExceptionConsoleListener.resolve("NullPointerException").get()
+        val qualified = ExceptionConsoleListener.resolve("java.lang.NullPointerException").get()
+
+        assertEquals(simple, qualified)
+        assertEquals("java.lang.NullPointerException", simple.name())
+        assertTrue(simple.isKnown())
+        assertEquals(listOf("java.lang.NullPointerException", "java.lang.RuntimeException",
+            "java.lang.Exception", "java.lang.Throwable"), simple.lineage())
+    }
+
+    fun testSupertypesOfRegisteredTypesAreKnownToo() {
+        val type = ExceptionConsoleListener.resolve("ObjectStreamException").get()
+
+        assertEquals("java.io.ObjectStreamException", type.name())
+        assertEquals("java.io.IOException", type.lineage()[1])
+        assertTrue(ExceptionConsoleListener.resolve("OutOfMemoryError").get().isError())
+    }
+
+    fun testUnknownNamesNeedTheirPackage() {
+        val billing = ExceptionConsoleListener.resolve("com.example.BillingException").get()
+        assertFalse(billing.isKnown())
+        assertEquals(listOf("com.example.BillingException"), billing.lineage())
+
+        // a bare word ending in Exception may be log text rather than a type
+        assertFalse(ExceptionConsoleListener.resolve("BillingException").isPresent)
+        assertFalse(ExceptionConsoleListener.resolve("SomethingException").isPresent)
+    }
+
+    fun testUnqualifiedRootCauseFallsBackToNearestResolvableCause() {
+        val block = parse(
+            """
+            com.example.ServiceException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            Caused by: java.io.UncheckedIOException: io
+            	at com.example.Dao.read(Dao.java:20)
+            Caused by: LocalOnlyException: boom
+            	at com.example.Dao.open(Dao.java:30)
+            """
+        )
+
+        assertEquals("LocalOnlyException", block.rootCause().exceptionName())
+        assertEquals("java.io.UncheckedIOException",
+            ExceptionConsoleListener.resolve(block, ExceptionRouting.ROOT_CAUSE).get().name())
+        assertEquals("com.example.ServiceException",
+            ExceptionConsoleListener.resolve(block, ExceptionRouting.TOP_LEVEL).get().name())
+    }
+
+    fun testUnnamedRootCauseFallsBackToItsEnclosingException() {
+        val block = parse(
+            """
+            java.lang.IllegalStateException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            Caused by: com.example.Boom: disk full
+            	at com.example.Dao.write(Dao.java:20)
+            """
+        )
+
+        assertEquals("", block.rootCause().exceptionName())
+        assertEquals("java.lang.IllegalStateException",
+            ExceptionConsoleListener.resolve(block, ExceptionRouting.ROOT_CAUSE).get().name())
+    }
+
+    fun testTopLevelRoutingDoesNotFallBack() {
+        val block = parse(
+            """
+            WrapperException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            Caused by: java.sql.SQLException: connection refused
+            	at com.example.Dao.query(Dao.java:20)
+            """
+        )
+
+        assertEquals("java.sql.SQLException",
+            ExceptionConsoleListener.resolve(block, ExceptionRouting.ROOT_CAUSE).get().name())
+        assertFalse(ExceptionConsoleListener.resolve(block, ExceptionRouting.TOP_LEVEL).isPresent)
+    }
+}
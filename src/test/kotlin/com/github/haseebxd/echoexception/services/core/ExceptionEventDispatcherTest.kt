@@ -0,0 +1,55 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+import java.util.concurrent.Executor
+
+class ExceptionEventDispatcherTest : TestCase() {
+
+    private val calls = mutableListOf<String>()
+    private val tasks = ArrayDeque<Runnable>()
+
+    private val dispatcher = ExceptionEventDispatcher(listOf(
+        ExceptionEventDispatcher.Sink { calls.add("sound " + it.exceptionName()) },
+        ExceptionEventDispatcher.Sink { calls.add("notification " + it.exceptionName()) },
+        ExceptionEventDispatcher.Sink { calls.add("achievement " + it.exceptionName()) },
+    ), Executor { tasks.add(it) })
+
+    private fun event(name: String) = ExceptionEvent(ExceptionType.named(name), null, System.nanoTime())
+
+    private fun runTasks() {
+        while (tasks.isNotEmpty()) tasks.removeFirst().run()
+    }
+
+    fun testSinksRunInOrderPerEvent() {
+        dispatcher.publish(event("java.io.IOException"))
+        dispatcher.publish(event("java.lang.NullPointerException"))
+        runTasks()
+
+        assertEquals(listOf(
+            "sound IOException", "notification IOException", "achievement IOException",
+            "sound NullPointerException", "notification NullPointerException", "achievement NullPointerException",
+        ), calls)
+    }
+
+    fun testNewestEventsAreDroppedWhenTheQueueIsFull() {
+        repeat(ExceptionEventDispatcher.QUEUE_CAPACITY) { assertTrue(dispatcher.publish(event("java.io.IOException"))) }
+        assertFalse(dispatcher.publish(event("java.lang.NullPointerException")))
+        assertEquals(1, dispatcher.droppedCount)
+        // one drain task serves the whole backlog
+        assertEquals(1, tasks.size)
+
+        runTasks()
+        assertEquals(3 * ExceptionEventDispatcher.QUEUE_CAPACITY, calls.size)
+        assertFalse(calls.any { it.endsWith("NullPointerException") })
+        assertTrue(dispatcher.publish(event("java.lang.NullPointerException")))
+    }
+
+    fun testDisposedDispatcherRefusesEvents() {
+        dispatcher.publish(event("java.io.IOException"))
+        dispatcher.dispose()
+        runTasks()
+
+        assertFalse(dispatcher.publish(event("java.io.IOException")))
+        assertTrue(calls.isEmpty())
+    }
+}
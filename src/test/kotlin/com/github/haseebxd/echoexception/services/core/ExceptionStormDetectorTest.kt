@@ -0,0 +1,55 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+import java.util.concurrent.TimeUnit
+
+class ExceptionStormDetectorTest : TestCase() {
+
+    private val start = TimeUnit.SECONDS.toNanos(100)
+    private val global = TokenBucket(100.0, 200.0, start)
+
+    fun testStormIsSummarisedOnceItSubsides() {
+        val detector = ExceptionStormDetector(5, global, start)
+
+        // the burst allowance is admitted, everything past it is only counted
+        repeat(10) { assertTrue(detector.admit("java.net.SocketTimeoutException", start)) }
+        repeat(30) { assertFalse(detector.admit("java.net.SocketTimeoutException", start)) }
+        assertFalse(detector.admit("java.io.EOFException", start))
+        assertTrue(detector.isInStorm())
+
+        assertTrue(detector.endIfSubsided(start + TimeUnit.SECONDS.toNanos(1)).isEmpty())
+        val summaries = detector.endIfSubsided(start + TimeUnit.SECONDS.toNanos(2))
+
+        assertEquals(listOf("java.net.SocketTimeoutException" to 30, "java.io.EOFException" to 1),
+            summaries.map { it.exceptionName() to it.occurrences() })
+        assertEquals(2_000, summaries[0].durationMillis())
+        assertFalse(detector.isInStorm())
+    }
+
+    fun testNamesPastTheLimitAreCountedAsOther() {
+        val detector = ExceptionStormDetector(1, global, start)
+        detector.admit("com.example.FirstException", start)
+        detector.admit("com.example.FirstException", start)
+
+        repeat(ExceptionStormDetector.MAX_STORM_NAMES + 4) { detector.admit("com.example.Name${it}Exception", start) }
+        repeat(3) { detector.admit("com.example.Name0Exception", start) }
+        val summaries = detector.endNow(start)
+
+        assertEquals(ExceptionStormDetector.MAX_STORM_NAMES + 1, summaries.size)
+        assertEquals(4, summaries.first { it.exceptionName() == "com.example.Name0Exception" }.occurrences())
+        val other = summaries.last()
+        assertTrue(other.isOther())
+        assertEquals(4, other.occurrences())
+    }
+
+    fun testProcessesShareTheGlobalBucket() {
+        val shared = TokenBucket(1.0, 3.0, start)
+        val first = ExceptionStormDetector(100, shared, start)
+        val second = ExceptionStormDetector(100, shared, start)
+
+        repeat(3) { assertTrue(first.admit("java.lang.IllegalStateException", start)) }
+        assertFalse(second.admit("java.lang.IllegalStateException", start))
+        assertTrue(second.isInStorm())
+        assertFalse(first.isInStorm())
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+
+class ExceptionTokenScannerTest : TestCase() {
+
+    private fun token(text: String): String? {
+        val match = ExceptionTokenScanner.find(text, 0, text.length)
+        if (match == ExceptionTokenScanner.NO_MATCH) return null
+        return text.substring(ExceptionTokenScanner.start(match), ExceptionTokenScanner.end(match))
+    }
+
+    private fun qualifiedToken(text: String): String {
+        val match = ExceptionTokenScanner.find(text, 0, text.length)
+        val start = ExceptionTokenScanner.qualifiedStart(text, 0, ExceptionTokenScanner.start(match))
+        return text.substring(start, ExceptionTokenScanner.end(match))
+    }
+
+    fun testFindsPlainToken() {
+        assertEquals("IllegalStateException", token("java.lang.IllegalStateException: bad"))
+        assertEquals("OutOfMemoryError", token("OutOfMemoryError"))
+    }
+
+    fun testBareSuffixIsNotAToken() {
+        assertNull(token("Exception: nothing before the suffix"))
+        assertNull(token("Error"))
+    }
+
+    fun testColorCodesAreWordBoundaries() {
+        val colored = "\u001B[1;31mjava.lang.NullPointerException\u001B[0m: boom"
+
+        assertEquals("NullPointerException", token(colored))
+        assertEquals("java.lang.NullPointerException", qualifiedToken(colored))
+    }
+
+    fun testHyperlinkSequencesAreSkipped() {
+        val linked = "\u001B]8;;file:///Main.java\u0007IOException\u001B]8;;\u001B\\"
+
+        assertEquals("IOException", token(linked))
+    }
+
+    fun testEscapeBeforeFramePrefixIsSkipped() {
+        val line = "\u001B[90m\tat com.example.Main.main(Main.java:5)"
+
+        assertEquals('a', line[ExceptionTokenScanner.skipWhitespaceAndEscapes(line, 0, line.length)])
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.haseebxd.echoexception.services.core
+
+import com.github.haseebxd.echoexception.sound.engine.PlaybackResult
+import com.github.haseebxd.echoexception.sound.engine.VoicePriority
+import junit.framework.TestCase
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class SoundSchedulerTest : TestCase() {
+
+    private var now = TimeUnit.SECONDS.toNanos(100)
+    private val played = mutableListOf<ExceptionType>()
+    private val playing = mutableListOf<CompletableFuture<PlaybackResult>>()
+    private val preempted = mutableListOf<VoicePriority>()
+    private val retries = Executors.newSingleThreadScheduledExecutor()
+
+    private val scheduler = SoundScheduler(object : SoundScheduler.Player {
+        override fun play(request: SoundScheduler.Request): CompletableFuture<PlaybackResult> {
+            played.add(request.exceptionType)
+            return CompletableFuture<PlaybackResult>().also { playing.add(it) }
+        }
+
+        override fun preemptBelow(priority: VoicePriority) {
+            preempted.add(priority)
+        }
+    }, retries, { now }).apply { setCooldowns(6_000, 1_500) }
+
+    override fun tearDown() {
+        retries.shutdownNow()
+        super.tearDown()
+    }
+
+    private fun submit(type: Class<out Throwable>): CompletableFuture<PlaybackResult> {
+        val exceptionType = ExceptionType.of(type)
+        return scheduler.submit(exceptionType, VoicePriority.of(exceptionType), "SATORU_GOJO", "clip.wav", 50)
+    }
+
+    private fun finishPlaying() {
+        playing.forEach { it.complete(PlaybackResult.skipped("clip.wav")) }
+    }
+
+    private fun advanceMillis(millis: Long) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis)
+        scheduler.drain()
+    }
+
+    fun testSameTypeWaitsForItsCooldown() {
+        submit(NumberFormatException::class.java)
+        finishPlaying()
+        advanceMillis(2_000)
+
+        assertTrue(submit(NumberFormatException::class.java).isDone)
+        advanceMillis(4_500)
+        submit(NumberFormatException::class.java)
+
+        assertEquals(2, played.size)
+    }
+
+    fun testWaitingRequestsPlayMostRecentFirst() {
+        submit(NumberFormatException::class.java)
+        finishPlaying()
+        submit(IllegalArgumentException::class.java)
+        submit(IllegalStateException::class.java)
+        assertEquals(1, played.size)
+
+        advanceMillis(1_500)
+
+        assertEquals(ExceptionType.of(IllegalStateException::class.java), played.last())
+    }
+
+    fun testMoreSevereRequestPreemptsThePlayingClip() {
+        submit(NumberFormatException::class.java)
+        submit(StackOverflowError::class.java)
+
+        assertEquals(listOf(VoicePriority.ERROR), preempted)
+        assertEquals(ExceptionType.of(StackOverflowError::class.java), played.last())
+    }
+
+    fun testStaleRequestsAreDropped() {
+        submit(NumberFormatException::class.java)
+        finishPlaying()
+        val waiting = submit(IllegalArgumentException::class.java)
+
+        advanceMillis(TimeUnit.NANOSECONDS.toMillis(SoundScheduler.MAX_WAIT_NANOS) + 1)
+
+        assertEquals(PlaybackResult.Status.SKIPPED, waiting.get().status())
+        assertEquals(1, played.size)
+    }
+
+    fun testConcurrentSubmitsAndRetriesKeepDraining() {
+        val starts = AtomicInteger()
+        val concurrent = SoundScheduler(object : SoundScheduler.Player {
+            override fun play(request: SoundScheduler.Request): CompletableFuture<PlaybackResult> {
+                // Some starts fail synchronously, as a backend whose line went away would
+                if (starts.incrementAndGet() % 5 == 0) {
+                    throw IllegalStateException("line unavailable")
+                }
+                return CompletableFuture.completedFuture(PlaybackResult.skipped(request.resourcePath))
+            }
+
+            override fun preemptBelow(priority: VoicePriority) {
+            }
+        }, retries, { System.nanoTime() }).apply { setCooldowns(0, 1) }
+        val types = listOf(NumberFormatException::class.java, IllegalArgumentException::class.java,
+            IllegalStateException::class.java, StackOverflowError::class.java).map { ExceptionType.of(it) }
+        val results = ConcurrentLinkedQueue<CompletableFuture<PlaybackResult>>()
+
+        // The 1 ms pack cooldown makes most requests wait, so the retry executor drains alongside the submitters
+        val submitters = Executors.newFixedThreadPool(4)
+        repeat(4) { thread ->
+            submitters.execute {
+                repeat(500) { i ->
+                    val type = types[(thread + i) % types.size]
+                    results += concurrent.submit(type, VoicePriority.of(type), "SATORU_GOJO", "clip.wav", 50)
+                }
+            }
+        }
+        submitters.shutdown()
+        assertTrue(submitters.awaitTermination(10, TimeUnit.SECONDS))
+
+        assertEquals(2_000, results.size)
+        for (result in results) {
+            try {
+                result.get(10, TimeUnit.SECONDS)
+            } catch (e: ExecutionException) {
+                assertEquals("line unavailable", e.cause!!.message)
+            }
+        }
+
+        // Neither a failed start nor a race on the queue leaves the drainer stuck
+        val startsBefore = starts.get()
+        Thread.sleep(2)
+        val type = ExceptionType.of(ArithmeticException::class.java)
+        concurrent.submit(type, VoicePriority.of(type), "SATORU_GOJO", "clip.wav", 50).handle { _, _ -> null }.get(10, TimeUnit.SECONDS)
+        assertEquals(startsBefore + 1, starts.get())
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+
+class StackTraceParserTest : TestCase() {
+
+    private val blocks = mutableListOf<StackTraceBlock>()
+    private val parser = StackTraceParser { blocks.add(it) }
+
+    fun testExceptionNameSplitAcrossChunks() {
+        parser.feed("Exception in thread \"main\" java.lang.NullPoin")
+        parser.feed("terException: boom\n\tat com.example.Main.main(Main.java:5)\n")
+        parser.flush()
+
+        assertEquals(1, blocks.size)
+        assertEquals("NullPointerException", blocks[0].header().exceptionName())
+        assertEquals("java.lang.NullPointerException", blocks[0].header().qualifiedName())
+        assertEquals(1, blocks[0].header().frameCount())
+    }
+
+    fun testCausedByChainIsOneBlock() {
+        parser.feed(
+            """
+            java.lang.RuntimeException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            Caused by: java.sql.SQLException: connection refused
+            	at com.example.Dao.query(Dao.java:20)
+            	... 1 more
+            INFO next request
+            """.trimIndent() + "\n"
+        )
+
+        assertEquals(1, blocks.size)
+        val segments = blocks[0].segments()
+        assertEquals(2, segments.size)
+        assertEquals(StackTraceBlock.Kind.CAUSED_BY, segments[1].kind())
+        assertEquals("SQLException", segments[1].exceptionName())
+        assertFalse(parser.hasPendingTrace())
+    }
+
+    fun testRootCauseSkipsSuppressedSections() {
+        parser.feed(
+            """
+            java.lang.RuntimeException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            	Suppressed: java.io.IOException: close failed
+            		at com.example.Resource.close(Resource.java:3)
+            	Caused by: java.io.EOFException
+            		... 2 more
+            Caused by: java.sql.SQLException: connection refused
+            	at com.example.Dao.query(Dao.java:20)
+            """.trimIndent() + "\n"
+        )
+        parser.flush()
+
+        val block = blocks.single()
+        assertEquals("RuntimeException", block.header().exceptionName())
+        assertEquals("SQLException", block.rootCause().exceptionName())
+        assertEquals(listOf("IOException"), block.suppressed().map { it.exceptionName() })
+    }
+
+    fun testCauseWithoutAnExceptionNameStaysInTheTrace() {
+        parser.feed(
+            """
+            java.lang.RuntimeException: wrapped
+            	at com.example.Service.run(Service.java:10)
+            Caused by: com.example.Boom: disk full
+            	at com.example.Dao.write(Dao.java:20)
+            	at com.example.Dao.flush(Dao.java:25)
+            Caused by: java.io.IOException: no space
+            	at com.example.Disk.write(Disk.java:30)
+            """.trimIndent() + "\n"
+        )
+        parser.flush()
+
+        val block = blocks.single()
+        assertEquals(listOf("RuntimeException", "", "IOException"), block.segments().map { it.exceptionName() })
+        assertEquals(StackTraceBlock.Kind.CAUSED_BY, block.segments()[1].kind())
+        assertEquals(2, block.segments()[1].frameCount())
+        assertEquals("IOException", block.rootCause().exceptionName())
+    }
+
+    fun testRootCauseSurvivesDeepChains() {
+        parser.feed("java.lang.IllegalStateException\n")
+        repeat(40) { parser.feed("Caused by: com.example.Level${it}Exception\n\tat x.Y.z(Y.java:1)\n") }
+        parser.flush()
+
+        val block = blocks.single()
+        assertEquals("Level39Exception", block.rootCause().exceptionName())
+        assertEquals(StackTraceParser.MAX_SEGMENTS, block.segments().size)
+    }
+
+    fun testRootCauseSurvivesSuppressedSectionsPastTheLimit() {
+        parser.feed("java.lang.IllegalStateException\n")
+        repeat(40) {
+            parser.feed("\tSuppressed: java.io.IOException: close $it\n\t\tat x.Y.close(Y.java:1)\n")
+            parser.feed("Caused by: com.example.Level${it}Exception\n\tat x.Y.z(Y.java:1)\n")
+        }
+        parser.flush()
+
+        val block = blocks.single()
+        assertEquals("Level39Exception", block.rootCause().exceptionName())
+        assertEquals(StackTraceParser.MAX_SEGMENTS, block.segments().size)
+        assertEquals(81 - StackTraceParser.MAX_SEGMENTS, block.droppedSegments())
+        assertEquals("Level39Exception", block.causeChain().last().exceptionName())
+    }
+
+    fun testOpenTraceIsKeptUntilIdle() {
+        parser.feed("java.lang.IllegalStateException: bad\n\tat a.B.c(B.java:1)\n")
+
+        assertTrue(blocks.isEmpty())
+        assertFalse(parser.flushIfIdle(System.nanoTime(), Long.MAX_VALUE))
+        assertTrue(parser.flushIfIdle(System.nanoTime(), 0))
+        assertEquals(1, blocks.size)
+    }
+
+    fun testRetainedFramesAreBounded() {
+        parser.feed("java.lang.StackOverflowError\n")
+        repeat(2_000) { parser.feed("\tat com.example.Recursion.call(Recursion.java:7)\n") }
+        parser.flush()
+
+        val header = blocks.single().header()
+        assertEquals(2_000, header.frameCount())
+        assertEquals(StackTraceParser.MAX_FRAMES_PER_SEGMENT, header.topFrames().size)
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.haseebxd.echoexception.services.core
+
+import junit.framework.TestCase
+import java.util.concurrent.TimeUnit
+
+class TokenBucketTest : TestCase() {
+
+    private val start = TimeUnit.SECONDS.toNanos(100)
+
+    fun testBurstThenRefillAtRate() {
+        val bucket = TokenBucket(5.0, 10.0, start)
+
+        repeat(10) { assertTrue(bucket.tryAcquire(start)) }
+        assertFalse(bucket.tryAcquire(start))
+
+        val oneSecondLater = start + TimeUnit.SECONDS.toNanos(1)
+        repeat(5) { assertTrue(bucket.tryAcquire(oneSecondLater)) }
+        assertFalse(bucket.tryAcquire(oneSecondLater))
+        assertFalse(bucket.isFull(oneSecondLater + TimeUnit.SECONDS.toNanos(1)))
+        assertTrue(bucket.isFull(oneSecondLater + TimeUnit.SECONDS.toNanos(2)))
+    }
+
+    fun testDebtIsBoundedByCapacity() {
+        val bucket = TokenBucket(100.0, 100.0, start)
+
+        bucket.consume(start, 1_000.0)
+        assertFalse(bucket.hasTokens(start))
+        // -100 after the charge, so it takes a little over a second to have tokens again
+        assertFalse(bucket.hasTokens(start + TimeUnit.SECONDS.toNanos(1)))
+        assertTrue(bucket.hasTokens(start + TimeUnit.MILLISECONDS.toNanos(1_100)))
+    }
+
+    fun testReconfiguringKeepsTokensUpToTheNewCapacity() {
+        val bucket = TokenBucket(5.0, 10.0, start)
+        repeat(4) { bucket.tryAcquire(start) }
+
+        bucket.configure(1.0, 2.0)
+        repeat(2) { assertTrue(bucket.tryAcquire(start)) }
+        assertFalse(bucket.tryAcquire(start))
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import com.github.haseebxd.echoexception.services.core.ExceptionEvent
+import com.github.haseebxd.echoexception.services.core.ExceptionType
+import junit.framework.TestCase
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.TimeUnit
+
+class AudioOutputEngineTest : TestCase() {
+
+    private val backend = NullAudioBackend(true)
+    private val engine = AudioOutputEngine(4, backend)
+
+    override fun tearDown() {
+        engine.dispose()
+        super.tearDown()
+    }
+
+    private fun clip(sample: Int, frames: Int): DecodedClip {
+        val buffer = ByteBuffer.allocate(frames * 2).order(ByteOrder.LITTLE_ENDIAN)
+        repeat(frames) { buffer.putShort(sample.toShort()) }
+        return DecodedClip("test.wav", AudioOutputEngine.FORMAT, buffer.flip(), ClipEncoding.PCM_16, frames, 1f)
+    }
+
+    fun testClipIsRenderedInRealTime() {
+        val frames = 4_410
+        val start = System.nanoTime()
+        val result = engine.play(clip(1_000, frames), 100, VoicePriority.EXCEPTION, 0).get(5, TimeUnit.SECONDS)
+        val elapsed = System.nanoTime() - start
+
+        assertEquals(PlaybackResult.Status.PLAYED, result.status())
+        assertEquals(frames, backend.samples().count { it.toInt() == 1_000 })
+        // the future completes only after the 100 ms of audio have been consumed
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(90))
+    }
+
+    fun testFirstFrameTimeMatchesTheFirstWrite() {
+        val trigger = System.nanoTime()
+        val result = engine.play(clip(1_000, 441), 100, VoicePriority.EXCEPTION, 0).get(5, TimeUnit.SECONDS)
+
+        val firstBlock = backend.blocks().first()
+        assertTrue(result.firstFrameAtNanos() >= firstBlock.writtenAtNanos())
+        assertTrue(firstBlock.writtenAtNanos() >= trigger)
+
+        val latency = LatencyHistogram()
+        latency.record(result.firstFrameAtNanos() - trigger)
+        assertEquals(1, latency.count())
+        assertTrue(latency.percentileMicros(50.0) < TimeUnit.SECONDS.toMicros(1))
+    }
+
+    fun testTriggerLatencyIncludesTheDispatcherQueue() {
+        val event = ExceptionEvent(ExceptionType.named("java.io.IOException"), null, System.nanoTime())
+        // the event waits behind others in the dispatcher queue before its sound is requested
+        Thread.sleep(50)
+        val requested = System.nanoTime()
+        val result = engine.play(clip(1_000, 441), 100, VoicePriority.EXCEPTION, 0).get(5, TimeUnit.SECONDS)
+
+        val fromDetection = LatencyHistogram()
+        fromDetection.recordFirstFrame(result, event.detectedNanos())
+        val fromRequest = LatencyHistogram()
+        fromRequest.recordFirstFrame(result, requested)
+
+        assertEquals(1, fromDetection.count())
+        assertTrue(fromDetection.maxMicros() - fromRequest.maxMicros() >= TimeUnit.MILLISECONDS.toMicros(50))
+
+        // nothing reached the output, so there is no latency to record
+        fromDetection.recordFirstFrame(PlaybackResult.skipped("test.wav"), event.detectedNanos())
+        assertEquals(1, fromDetection.count())
+    }
+
+    fun testDisposeStopsPlaybackAndRefusesNewClips() {
+        val playing = engine.play(clip(1_000, 441_000), 100, VoicePriority.EXCEPTION, 0)
+        while (backend.blocks().isEmpty()) Thread.sleep(5)
+
+        engine.dispose()
+        assertEquals(PlaybackResult.Status.FAILED, playing.get(1, TimeUnit.SECONDS).status())
+        val refused = engine.play(clip(1_000, 441), 100, VoicePriority.EXCEPTION, 0)
+        assertEquals(PlaybackResult.Status.DROPPED, refused.getNow(null)?.status())
+    }
+
+    fun testHistogramBucketsBoundTheValue() {
+        for (micros in longArrayOf(0, 3, 4, 9, 100, 12_345, 1L shl 40)) {
+            val upper = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(micros))
+            assertTrue("$micros -> $upper", upper >= micros && upper <= micros + micros / 4)
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import junit.framework.TestCase
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import kotlin.math.PI
+import kotlin.math.sin
+
+class ImaAdpcmTest : TestCase() {
+
+    private fun sine(count: Int): ShortArray =
+        ShortArray(count) { (sin(2 * PI * 440 * it / 44_100) * 12_000).toInt().toShort() }
+
+    private fun decode(encoded: ByteArray, count: Int, readSize: Int): ShortArray {
+        val decoder = ImaAdpcm.Decoder(ByteBuffer.wrap(encoded).order(ByteOrder.LITTLE_ENDIAN), count)
+        val out = ShortArray(count)
+        var position = 0
+        while (decoder.hasRemaining()) {
+            position += decoder.read(out, position, minOf(readSize, count - position))
+        }
+        assertEquals(count, position)
+        return out
+    }
+
+    fun testRoundTripAcrossBlocks() {
+        // an odd count that ends part-way through a block
+        val samples = sine(ImaAdpcm.SAMPLES_PER_BLOCK * 3 + 101)
+        val encoded = ImaAdpcm.encode(samples)
+        assertEquals(ImaAdpcm.encodedSize(samples.size), encoded.size)
+
+        val decoded = decode(encoded, samples.size, AudioOutputEngine.BLOCK_FRAMES)
+
+        var error = 0.0
+        var signal = 0.0
+        for (i in samples.indices) {
+            val diff = (samples[i] - decoded[i]).toDouble()
+            error += diff * diff
+            signal += samples[i].toDouble() * samples[i]
+        }
+        assertTrue("signal-to-noise ratio too low", signal / error > 100)
+    }
+
+    fun testReadSizeDoesNotChangeOutput() {
+        val samples = sine(ImaAdpcm.SAMPLES_PER_BLOCK * 2)
+        val encoded = ImaAdpcm.encode(samples)
+
+        assertTrue(decode(encoded, samples.size, 7).contentEquals(decode(encoded, samples.size, 1_000)))
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import junit.framework.TestCase
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import kotlin.math.PI
+import kotlin.math.log10
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+class LoudnessTest : TestCase() {
+
+    private fun stream(samples: ShortArray): SampleStream {
+        val buffer = ByteBuffer.allocate(samples.size * 2).order(ByteOrder.LITTLE_ENDIAN)
+        samples.forEach { buffer.putShort(it) }
+        return SampleStream.pcm(buffer.flip())
+    }
+
+    private fun sine(amplitude: Double, count: Int): ShortArray =
+        ShortArray(count) { (sin(2 * PI * 440 * it / 44_100) * amplitude).toInt().toShort() }
+
+    fun testSilenceDoesNotLowerMeasuredLoudness() {
+        // one second of a sine at -20 dBFS RMS, then one second of silence
+        val amplitude = Short.MAX_VALUE * sqrt(2.0) / 10
+        val samples = sine(amplitude, 44_100) + ShortArray(44_100)
+
+        val gainDb = 20 * log10(Loudness.normalizationGain(stream(samples)).toDouble())
+
+        assertEquals(0.0, gainDb, 0.1)
+    }
+
+    fun testBoostIsCapped() {
+        val gainDb = 20 * log10(Loudness.normalizationGain(stream(sine(300.0, 44_100))).toDouble())
+
+        assertEquals(Loudness.MAX_BOOST_DB.toDouble(), gainDb, 0.01)
+    }
+
+    fun testVolumeCurve() {
+        assertEquals(0f, Loudness.volumeGain(0))
+        assertEquals(1f, Loudness.volumeGain(100))
+        assertEquals(-Loudness.VOLUME_RANGE_DB / 2.0, 20 * log10(Loudness.volumeGain(50).toDouble()), 0.01)
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import junit.framework.TestCase
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class SoftwareMixerTest : TestCase() {
+
+    private val finished = mutableListOf<String>()
+    private val stolen = mutableListOf<String>()
+    private val listener = object : SoftwareMixer.Listener<String> {
+        override fun finished(tag: String) {
+            finished.add(tag)
+        }
+
+        override fun stolen(tag: String) {
+            stolen.add(tag)
+        }
+    }
+
+    private fun constant(sample: Int, frames: Int): SampleStream {
+        val buffer = ByteBuffer.allocate(frames * 2).order(ByteOrder.LITTLE_ENDIAN)
+        repeat(frames) { buffer.putShort(sample.toShort()) }
+        return SampleStream.pcm(buffer.flip())
+    }
+
+    private fun firstSample(block: ByteArray): Int =
+        ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN).getShort(0).toInt()
+
+    fun testVoicesAreSummed() {
+        val mixer = SoftwareMixer(4, listener)
+        mixer.add(constant(1_000, 10), 1f, VoicePriority.EXCEPTION, "a")
+        mixer.add(constant(2_000, 10), 1f, VoicePriority.EXCEPTION, "b")
+
+        val block = ByteArray(20)
+        mixer.mix(block)
+
+        assertEquals(3_000, firstSample(block))
+        assertTrue(mixer.isIdle())
+        assertEquals(listOf("a", "b"), finished)
+    }
+
+    fun testLoudMixIsLimitedInsteadOfWrapping() {
+        val mixer = SoftwareMixer(4, listener)
+        repeat(3) { mixer.add(constant(30_000, 10), 1f, VoicePriority.EXCEPTION, "loud$it") }
+
+        val block = ByteArray(20)
+        mixer.mix(block)
+
+        assertEquals(Short.MAX_VALUE.toInt(), firstSample(block))
+    }
+
+    fun testErrorStealsVoiceFromException() {
+        val mixer = SoftwareMixer(2, listener)
+        assertTrue(mixer.add(constant(1, 100), 1f, VoicePriority.EXCEPTION, "first"))
+        assertTrue(mixer.add(constant(1, 100), 1f, VoicePriority.EXCEPTION, "second"))
+
+        assertFalse(mixer.add(constant(1, 100), 1f, VoicePriority.EXCEPTION, "third"))
+        assertTrue(mixer.add(constant(1, 100), 1f, VoicePriority.ERROR, "error"))
+        assertEquals(listOf("first"), stolen)
+
+        assertTrue(mixer.add(constant(1, 100), 1f, VoicePriority.ERROR, "error2"))
+        assertEquals(2, mixer.activeVoices)
+        assertFalse(mixer.add(constant(1, 100), 1f, VoicePriority.ERROR, "error3"))
+        assertEquals(listOf("first", "second"), stolen)
+    }
+
+    fun testPreemptionStopsOnlyOutrankedVoices() {
+        val mixer = SoftwareMixer(4, listener)
+        mixer.add(constant(1, 100), 1f, VoicePriority.EXCEPTION, "exception")
+        mixer.add(constant(1, 100), 1f, VoicePriority.ERROR, "error")
+
+        mixer.stopOutranked(VoicePriority.ERROR)
+
+        assertEquals(listOf("exception"), stolen)
+        assertEquals(1, mixer.activeVoices)
+    }
+}
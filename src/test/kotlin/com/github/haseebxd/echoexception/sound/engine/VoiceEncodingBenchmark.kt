@@ -0,0 +1,90 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.zip.DeflaterOutputStream
+import javax.sound.sampled.AudioFormat
+import javax.sound.sampled.AudioSystem
+
+/**
+ * Compares the voice packs as WAV, as a PCM sprite and as an ADPCM sprite: bytes in the jar
+ * (deflated, as the jar stores them), cost of decoding a whole clip, and the time until the first
+ * output block of a clip is ready. Run with `./gradlew benchmarkVoiceEncoding`.
+ */
+fun main(args: Array<String>) {
+    val root = File(args.firstOrNull() ?: "src/main/resources/voice-packs")
+    val wavs = root.walk().filter { it.extension == "wav" }.sortedBy { it.path }.toList()
+    require(wavs.isNotEmpty()) { "No WAV files under ${root.absolutePath}" }
+
+    val pcmClips = wavs.map { decodeWav(it) }
+    val adpcmClips = pcmClips.map { encodeAdpcm(it) }
+    val block = ShortArray(AudioOutputEngine.BLOCK_FRAMES)
+
+    println("%-8s %12s %16s %20s".format("", "jar bytes", "decode/clip", "first block/clip"))
+    report("WAV", wavs.sumOf { deflatedSize(it.readBytes()) },
+        measure(wavs.size) { decodeWav(wavs[it]) },
+        measure(wavs.size) { firstBlockFromWav(wavs[it], block) })
+    report("PCM", pcmClips.sumOf { deflatedSize(bytesOf(it.data())) },
+        measure(pcmClips.size) { drain(pcmClips[it].openStream(), block) },
+        measure(pcmClips.size) { pcmClips[it].openStream().read(block, 0, block.size) })
+    report("ADPCM", adpcmClips.sumOf { deflatedSize(bytesOf(it.data())) },
+        measure(adpcmClips.size) { drain(adpcmClips[it].openStream(), block) },
+        measure(adpcmClips.size) { adpcmClips[it].openStream().read(block, 0, block.size) })
+}
+
+private fun report(name: String, jarBytes: Long, decodeNanos: Double, firstBlockNanos: Double) {
+    println("%-8s %12d %13.1f µs %17.1f µs".format(name, jarBytes, decodeNanos / 1_000, firstBlockNanos / 1_000))
+}
+
+// Average nanoseconds per call over every clip, after a warm-up pass
+private inline fun measure(clips: Int, action: (Int) -> Unit): Double {
+    val rounds = 20
+    repeat(3) { for (i in 0 until clips) action(i) }
+    val start = System.nanoTime()
+    repeat(rounds) { for (i in 0 until clips) action(i) }
+    return (System.nanoTime() - start).toDouble() / (rounds * clips)
+}
+
+private fun decodeWav(wav: File): DecodedClip {
+    AudioSystem.getAudioInputStream(wav).use { source ->
+        val format = source.format
+        val pcm16 = AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.sampleRate, 16,
+            format.channels, format.channels * 2, format.sampleRate, false)
+        val samples = AudioSystem.getAudioInputStream(pcm16, source).use { it.readAllBytes() }
+        val input = ByteBuffer.wrap(samples).order(ByteOrder.LITTLE_ENDIAN)
+        return DecodedClip(wav.name, AudioOutputEngine.FORMAT, PcmDecoder.toEngineFormat(input, pcm16))
+    }
+}
+
+// The WAV path has to open, parse and convert the file before anything can be played
+private fun firstBlockFromWav(wav: File, block: ShortArray) {
+    decodeWav(wav).openStream().read(block, 0, block.size)
+}
+
+private fun encodeAdpcm(clip: DecodedClip): DecodedClip {
+    val samples = ShortArray(clip.frameCount())
+    clip.openStream().read(samples, 0, samples.size)
+    val encoded = ByteBuffer.wrap(ImaAdpcm.encode(samples)).order(ByteOrder.LITTLE_ENDIAN)
+    return DecodedClip(clip.resourcePath(), clip.format(), encoded, ClipEncoding.IMA_ADPCM, samples.size,
+        clip.normalizationGain())
+}
+
+private fun drain(stream: SampleStream, block: ShortArray) {
+    while (stream.read(block, 0, block.size) == block.size) {
+        // keep reading
+    }
+}
+
+private fun bytesOf(data: ByteBuffer): ByteArray {
+    val bytes = ByteArray(data.remaining())
+    data.duplicate().get(bytes)
+    return bytes
+}
+
+private fun deflatedSize(bytes: ByteArray): Long {
+    val out = ByteArrayOutputStream()
+    DeflaterOutputStream(out).use { it.write(bytes) }
+    return out.size().toLong()
+}
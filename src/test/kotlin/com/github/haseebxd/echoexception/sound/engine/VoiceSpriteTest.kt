@@ -0,0 +1,112 @@
+package com.github.haseebxd.echoexception.sound.engine
+
+import junit.framework.TestCase
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class VoiceSpriteTest : TestCase() {
+
+    private class Clip(val name: String, val samples: ShortArray, val gain: Float, val data: ByteArray)
+
+    private fun pcmClip(name: String, samples: ShortArray, gain: Float = 1f): Clip {
+        val data = ByteBuffer.allocate(samples.size * 2).order(ByteOrder.LITTLE_ENDIAN)
+        data.asShortBuffer().put(samples)
+        return Clip(name, samples, gain, data.array())
+    }
+
+    // Same layout as the packVoiceSprites task writes
+    private fun sprite(encoding: ClipEncoding, vararg clips: Clip, magic: Int = VoiceSprite.MAGIC,
+                       dataOffset: Int = 0): ByteBuffer {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { out ->
+            out.writeInt(magic)
+            out.writeInt(VoiceSprite.VERSION)
+            out.writeInt(AudioOutputEngine.FORMAT.sampleRate.toInt())
+            out.writeShort(AudioOutputEngine.FORMAT.channels)
+            out.writeShort(AudioOutputEngine.FORMAT.sampleSizeInBits)
+            out.writeShort(encoding.ordinal)
+            out.writeInt(clips.size)
+            var offset = dataOffset
+            for (clip in clips) {
+                val name = clip.name.toByteArray(Charsets.UTF_8)
+                out.writeShort(name.size)
+                out.write(name)
+                out.writeInt(offset)
+                out.writeInt(clip.data.size)
+                out.writeInt(clip.samples.size)
+                out.writeFloat(clip.gain)
+                offset += clip.data.size
+            }
+            clips.forEach { out.write(it.data) }
+        }
+        return ByteBuffer.wrap(bytes.toByteArray())
+    }
+
+    private fun samplesOf(clip: DecodedClip): ShortArray {
+        val samples = ShortArray(clip.frameCount())
+        assertEquals(samples.size, clip.openStream().read(samples, 0, samples.size))
+        return samples
+    }
+
+    fun testClipsAreSlicedOutOfTheSprite() {
+        val first = pcmClip("first.wav", shortArrayOf(1, -2, 3), 0.5f)
+        val second = pcmClip("second.wav", shortArrayOf(Short.MAX_VALUE, Short.MIN_VALUE))
+        val sprite = VoiceSprite.parse("voice-packs/team/", sprite(ClipEncoding.PCM_16, first, second))
+
+        assertEquals(2, sprite.clipCount())
+        val clip = sprite.clip("voice-packs/team/first.wav")!!
+        assertEquals(ClipEncoding.PCM_16, clip.encoding())
+        assertEquals(0.5f, clip.normalizationGain())
+        assertTrue(first.samples.contentEquals(samplesOf(clip)))
+        assertTrue(second.samples.contentEquals(samplesOf(sprite.clip("voice-packs/team/second.wav")!!)))
+        assertNull(sprite.clip("voice-packs/other/first.wav"))
+        assertNull(sprite.clip("voice-packs/team/missing.wav"))
+    }
+
+    fun testAdpcmClipsDecodeWhilePlaying() {
+        val samples = ShortArray(ImaAdpcm.SAMPLES_PER_BLOCK * 2 + 7) { (it * 37 % 2_000 - 1_000).toShort() }
+        val clip = Clip("tone.wav", samples, 1f, ImaAdpcm.encode(samples))
+        val sprite = VoiceSprite.parse("voice-packs/team/", sprite(ClipEncoding.IMA_ADPCM, clip))
+
+        val decoded = sprite.clip("voice-packs/team/tone.wav")!!
+        assertEquals(ClipEncoding.IMA_ADPCM, decoded.encoding())
+        assertEquals(samples.size, samplesOf(decoded).size)
+    }
+
+    fun testForeignAndTruncatedSpritesAreRejected() {
+        val clip = pcmClip("first.wav", shortArrayOf(1, 2, 3))
+        try {
+            VoiceSprite.parse("voice-packs/team/", sprite(ClipEncoding.PCM_16, clip, magic = 0x52494646))
+            fail("A WAV header is not a sprite")
+        } catch (expected: IOException) {
+        }
+        try {
+            VoiceSprite.parse("voice-packs/team/", sprite(ClipEncoding.PCM_16, clip, dataOffset = 2))
+            fail("The clip runs past the end of the sprite")
+        } catch (expected: IOException) {
+            assertTrue(expected.message!!, expected.message!!.contains("first.wav"))
+        }
+    }
+
+    fun testBuiltInSpritesHoldEveryClipOfTheirPack() {
+        val packs = File("src/main/resources/voice-packs").listFiles { file -> file.isDirectory }.orEmpty()
+        assertTrue(packs.isNotEmpty())
+        for (pack in packs) {
+            val wavs = pack.listFiles { file -> file.extension == "wav" }.orEmpty()
+            val sprite = VoiceSprite.load("voice-packs/${pack.name}/")
+            assertNotNull("No sprite for ${pack.name}", sprite)
+
+            assertEquals(wavs.size, sprite!!.clipCount())
+            for (wav in wavs) {
+                val clip = sprite.clip("voice-packs/${pack.name}/${wav.name}")
+                assertNotNull(wav.name, clip)
+                assertTrue(wav.name, clip!!.frameCount() > 0)
+                assertEquals(clip.frameCount(), samplesOf(clip).size)
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.haseebxd.echoexception.sound.voices
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType
+import junit.framework.TestCase
+import java.io.IOException
+import java.net.SocketException
+import java.net.SocketTimeoutException
+
+class ExceptionTypeMapTest : TestCase() {
+
+    private val map = ExceptionTypeMap.ofNames(
+        mapOf(
+            IOException::class.java.name to "io",
+            IllegalArgumentException::class.java.name to "argument",
+            NumberFormatException::class.java.name to "number",
+        ),
+        "default",
+    )
+
+    fun testSubclassFallsBackToNearestMappedType() {
+        assertEquals("io", map.get(ExceptionType.of(SocketException::class.java)))
+        assertEquals("io", map.get(ExceptionType.of(SocketTimeoutException::class.java)))
+    }
+
+    fun testExactMappingWinsOverSupertype() {
+        assertEquals("number", map.get(ExceptionType.of(NumberFormatException::class.java)))
+        assertEquals("argument", map.get(ExceptionType.of(IllegalArgumentException::class.java)))
+    }
+
+    fun testUnmappedHierarchyGetsFallback() {
+        assertEquals("default", map.get(ExceptionType.of(IllegalStateException::class.java)))
+        assertEquals("default", map.get(ExceptionType.of(OutOfMemoryError::class.java)))
+    }
+
+    fun testNamesNeedNoLoadedClass() {
+        assertEquals("io", map.get(ExceptionType.named("java.net.SocketTimeoutException")))
+        assertEquals("number", map.get(ExceptionType.named("NumberFormatException")))
+        assertEquals("default", map.get(ExceptionType.named("com.example.BillingException")))
+
+        val byName = ExceptionTypeMap.ofNames(mapOf("BillingException" to "billing"), "default")
+        assertEquals("billing", byName.get(ExceptionType.named("com.example.BillingException")))
+    }
+
+    fun testLookupsPastTheCacheLimitAreStillAnswered() {
+        val type = ExceptionType.named("java.net.SocketTimeoutException")
+        assertEquals("io", map.get(type))
+
+        repeat(ExceptionTypeMap.MAX_CACHED_TYPES + 10) {
+            assertEquals("default", map.get(ExceptionType.named("com.example.Generated${it}Exception")))
+        }
+        assertEquals("io", map.get(type))
+    }
+
+    fun testPackUsesHierarchy() {
+        assertEquals(
+            GojoVoice().getSoundForException(IOException::class.java),
+            GojoVoice().getSoundForException(SocketException::class.java),
+        )
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.haseebxd.echoexception.sound.voices
+
+import junit.framework.TestCase
+import java.io.FileNotFoundException
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+class ExternalVoicePackTest : TestCase() {
+
+    private val manifest = """
+        id=team
+        name=Team Pack
+        default.sound=clips/default.wav
+        sound.java.io.IOException=clips/io.wav
+        notification.java.io.IOException=The disk says no.
+        sound.com.example.BillingException=clips/billing.wav
+    """.trimIndent()
+
+    private lateinit var directory: Path
+
+    override fun setUp() {
+        super.setUp()
+        directory = Files.createTempDirectory("voice-pack")
+    }
+
+    override fun tearDown() {
+        directory.toFile().deleteRecursively()
+        super.tearDown()
+    }
+
+    fun testFolderPackMapsNamesAndSubclasses() {
+        val folder = Files.createDirectories(directory.resolve("team"))
+        Files.writeString(folder.resolve(ExternalVoicePack.MANIFEST), manifest)
+
+        ExternalVoicePack.load(folder).use { pack ->
+            assertEquals("team", pack.id())
+            assertEquals("Team Pack", pack.displayName())
+            assertEquals(folder.resolve("clips/io.wav").toUri().toString(),
+                pack.getSoundForException(FileNotFoundException::class.java))
+            assertEquals("The disk says no.", pack.getNotificationForException(IOException::class.java))
+            assertEquals(folder.resolve("clips/default.wav").toUri().toString(),
+                pack.getSoundForException(IllegalStateException::class.java))
+            assertEquals(3, pack.getSoundResources().size)
+        }
+    }
+
+    fun testZipPackResolvesClipsInsideTheZip() {
+        val zip = directory.resolve("team.zip")
+        ZipOutputStream(Files.newOutputStream(zip)).use {
+            it.putNextEntry(ZipEntry(ExternalVoicePack.MANIFEST))
+            it.write(manifest.toByteArray())
+            it.closeEntry()
+        }
+
+        ExternalVoicePack.load(zip).use { pack ->
+            val clip = pack.getSoundForException(IOException::class.java)
+            assertTrue(clip, clip.startsWith(pack.rootUri()))
+            assertTrue(clip, clip.endsWith("!/clips/io.wav"))
+        }
+    }
+
+    fun testClipOutsideThePackIsRejected() {
+        val folder = Files.createDirectories(directory.resolve("escape"))
+        Files.writeString(folder.resolve(ExternalVoicePack.MANIFEST), "default.sound=../../secret.wav")
+
+        try {
+            ExternalVoicePack.load(folder).close()
+            fail("Expected an IOException")
+        } catch (expected: IOException) {
+            // the manifest points outside the pack
+        }
+    }
+}
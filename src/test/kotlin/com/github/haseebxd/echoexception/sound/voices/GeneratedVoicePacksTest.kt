@@ -0,0 +1,54 @@
+package com.github.haseebxd.echoexception.sound.voices
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType
+import junit.framework.TestCase
+import java.io.File
+import java.util.Properties
+
+/**
+ * Checks the classes the generateVoicePacks task compiled against the descriptors they were
+ * generated from.
+ */
+class GeneratedVoicePacksTest : TestCase() {
+
+    private val voicePacksDir = File("src/main/resources/voice-packs")
+
+    private fun descriptors(): List<Pair<File, Properties>> {
+        val packs = voicePacksDir.listFiles { file -> file.resolve("voice-pack.properties").isFile }.orEmpty()
+        assertTrue("No voice-pack descriptors under ${voicePacksDir.absolutePath}", packs.isNotEmpty())
+        return packs.map { pack ->
+            pack to Properties().apply { pack.resolve("voice-pack.properties").reader(Charsets.UTF_8).use { load(it) } }
+        }
+    }
+
+    private fun packOf(properties: Properties): VoicePack =
+        Class.forName("${VoicePack::class.java.packageName}.${properties.getProperty("class")}")
+            .getDeclaredConstructor().newInstance() as VoicePack
+
+    fun testEveryDescriptorKeyResolvesThroughTheGeneratedTable() {
+        for ((pack, properties) in descriptors()) {
+            val voicePack = packOf(properties)
+            for (key in properties.stringPropertyNames()) {
+                when {
+                    key.startsWith("sound.") -> assertEquals(key,
+                        "voice-packs/${pack.name}/${properties.getProperty(key)}",
+                        voicePack.getSoundForException(ExceptionType.named(key.removePrefix("sound."))))
+                    key.startsWith("notification.") -> assertEquals(key,
+                        properties.getProperty(key),
+                        voicePack.getNotificationForException(ExceptionType.named(key.removePrefix("notification."))))
+                }
+            }
+        }
+    }
+
+    fun testUnmappedExceptionsGetTheDescriptorDefaults() {
+        for ((pack, properties) in descriptors()) {
+            val voicePack = packOf(properties)
+            val unmapped = ExceptionType.named("com.example.UnmappedException")
+
+            assertEquals("voice-packs/${pack.name}/${properties.getProperty("default.sound")}",
+                voicePack.getSoundForException(unmapped))
+            assertEquals(properties.getProperty("default.notification"), voicePack.getNotificationForException(unmapped))
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.haseebxd.echoexception.sound.voices
+
+import junit.framework.TestCase
+import java.nio.file.Files
+import java.nio.file.Path
+
+class VoicePackRegistryTest : TestCase() {
+
+    private val contributed = mutableListOf<VoicePackBean>()
+    private val installed = mutableListOf<ExternalVoicePack>()
+    private val registry = VoicePackRegistry({ contributed.toList() }, { installed.toList() })
+
+    private lateinit var directory: Path
+
+    override fun setUp() {
+        super.setUp()
+        directory = Files.createTempDirectory("voice-pack")
+    }
+
+    override fun tearDown() {
+        installed.forEach { it.close() }
+        directory.toFile().deleteRecursively()
+        super.tearDown()
+    }
+
+    private fun bean(id: String, implementationClass: String = GojoVoice::class.java.name) = VoicePackBean().apply {
+        this.id = id
+        this.displayName = "$id pack"
+        this.implementationClass = implementationClass
+    }
+
+    private fun install(id: String): ExternalVoicePack {
+        val folder = Files.createDirectories(directory.resolve(id))
+        Files.writeString(folder.resolve(ExternalVoicePack.MANIFEST), "id=$id\nname=$id pack\ndefault.sound=default.wav\n")
+        return ExternalVoicePack.load(folder).also { installed += it }
+    }
+
+    fun testContributedPacksComeAndGoWithTheirPlugins() {
+        contributed += bean(VoicePackRegistry.DEFAULT_PACK_ID)
+        registry.rebuild()
+        assertNull(registry.find("TEAM"))
+
+        contributed += bean("TEAM")
+        registry.rebuild()
+        val team = registry.find("TEAM")!!
+        assertEquals("TEAM pack", team.displayName())
+        assertEquals(1, team.ordinal())
+        assertSame(team, registry.get(1))
+
+        contributed.removeAt(1)
+        registry.rebuild()
+        assertNull(registry.find("TEAM"))
+        assertEquals(listOf(VoicePackRegistry.DEFAULT_PACK_ID), registry.getEntries().map { it.id() })
+    }
+
+    fun testInstalledPacksFollowContributedOnes() {
+        val pack = install("local")
+        contributed += bean(VoicePackRegistry.DEFAULT_PACK_ID)
+        contributed += bean("TEAM")
+        registry.rebuild()
+
+        assertEquals(listOf(VoicePackRegistry.DEFAULT_PACK_ID, "TEAM", "local"), registry.getEntries().map { it.id() })
+        assertSame(pack, registry.find("local")!!.pack())
+        assertEquals(2, registry.find("local")!!.ordinal())
+    }
+
+    fun testRepeatedIdKeepsTheFirstRegistration() {
+        contributed += bean(VoicePackRegistry.DEFAULT_PACK_ID)
+        contributed += bean("TEAM", "com.example.FirstVoice")
+        contributed += bean("TEAM", "com.example.SecondVoice")
+        install(VoicePackRegistry.DEFAULT_PACK_ID)
+        registry.rebuild()
+
+        assertEquals(listOf(VoicePackRegistry.DEFAULT_PACK_ID, "TEAM"), registry.getEntries().map { it.id() })
+        assertEquals(1, registry.find("TEAM")!!.ordinal())
+    }
+
+    fun testUnknownOrRemovedPackFallsBackToTheDefault() {
+        contributed += bean("TEAM")
+        contributed += bean(VoicePackRegistry.DEFAULT_PACK_ID)
+        registry.rebuild()
+
+        assertEquals("TEAM", registry.getOrDefault("TEAM").id())
+        assertEquals(VoicePackRegistry.DEFAULT_PACK_ID, registry.getOrDefault(null).id())
+        assertEquals(VoicePackRegistry.DEFAULT_PACK_ID, registry.getOrDefault("REMOVED").id())
+
+        // without the default pack the first registered one is used
+        contributed.removeAt(1)
+        registry.rebuild()
+        assertEquals("TEAM", registry.getOrDefault("REMOVED").id())
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.haseebxd.echoexception.sound.voices
+
+import com.github.haseebxd.echoexception.services.core.ExceptionType
+import junit.framework.TestCase
+import java.io.FileNotFoundException
+import java.io.IOException
+
+class VoicePackTableTest : TestCase() {
+
+    private val sounds = mapOf(
+        IOException::class.java.name to "io.wav",
+        IllegalArgumentException::class.java.name to "argument.wav",
+        "com.example.BillingException" to "billing.wav",
+    )
+    private val notifications = mapOf(
+        IOException::class.java.name to "The disk says no.",
+        IllegalStateException::class.java.name to "Wrong state.",
+    )
+
+    private fun table(): VoicePackTable {
+        val hash = VoicePackHash.place((sounds.keys + notifications.keys).toList())
+        return VoicePackTable(
+            hash.names(),
+            hash.names().map { sounds[it] }.toTypedArray(),
+            hash.names().map { notifications[it] }.toTypedArray(),
+            hash.displacements(),
+            "default.wav",
+            "Default line.",
+        )
+    }
+
+    fun testEveryPlacedNameIsFoundInItsSlot() {
+        val names = (0 until 500).map { "com.example.Generated${it}Exception" }
+        val hash = VoicePackHash.place(names)
+
+        assertEquals(names.toSet(), hash.names().toSet())
+        for ((slot, name) in hash.names().withIndex()) {
+            val displacement = hash.displacements()[VoicePackHash.hash(name, 0) % hash.displacements().size]
+            assertEquals(slot, VoicePackHash.hash(name, displacement) % hash.names().size)
+        }
+    }
+
+    fun testDuplicateNamesAreRejected() {
+        try {
+            VoicePackHash.place(listOf("java.io.IOException", "java.io.IOException"))
+            fail("Duplicate names have no perfect hash")
+        } catch (expected: IllegalArgumentException) {
+        }
+    }
+
+    fun testLookupFallsBackThroughSupertypesToTheDefault() {
+        val table = table()
+
+        assertEquals("io.wav", table.sound(ExceptionType.of(FileNotFoundException::class.java)))
+        assertEquals("argument.wav", table.sound(ExceptionType.of(NumberFormatException::class.java)))
+        assertEquals("billing.wav", table.sound(ExceptionType.named("com.example.BillingException")))
+        assertEquals("default.wav", table.sound(ExceptionType.of(UnsupportedOperationException::class.java)))
+        assertEquals("default.wav", table.sound(ExceptionType.named("com.example.UnknownException")))
+    }
+
+    fun testSoundsAndLinesAreLookedUpSeparately() {
+        val table = table()
+
+        // IllegalStateException has a line but no clip, IllegalArgumentException the other way round
+        assertEquals("default.wav", table.sound(ExceptionType.of(IllegalStateException::class.java)))
+        assertEquals("Wrong state.", table.notification(ExceptionType.of(IllegalStateException::class.java)))
+        assertEquals("Default line.", table.notification(ExceptionType.of(IllegalArgumentException::class.java)))
+    }
+
+    fun testEmptyTableAnswersWithDefaults() {
+        val hash = VoicePackHash.place(emptyList())
+        val table = VoicePackTable(hash.names(), arrayOf(), arrayOf(), hash.displacements(), "default.wav", "Default line.")
+
+        assertEquals("default.wav", table.sound(ExceptionType.of(IOException::class.java)))
+        assertEquals(listOf("default.wav"), table.soundResources().toList())
+    }
+
+    fun testSoundResourcesStartWithTheDefaultAndHaveNoDuplicates() {
+        val resources = table().soundResources().toList()
+
+        assertEquals("default.wav", resources.first())
+        assertEquals(setOf("default.wav", "io.wav", "argument.wav", "billing.wav"), resources.toSet())
+        assertEquals(resources.size, resources.toSet().size)
+    }
+}